@@ -4,15 +4,24 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Created by aspsine on 15/9/4.
  */
 public abstract class BaseGroupAdapter<G, C> extends BaseAdapter {
 
-    private List<Integer> mHeaderPositions;
+    /**
+     * prefix sums of the group sizes, the position of each group header, sorted
+     */
+    private int[] mHeaderPositions = new int[0];
+
+    /**
+     * the number of groups indexed in {@link #mHeaderPositions}
+     */
+    private int mIndexedGroupCount;
+
+    private int mCount;
 
     @Override
     public long getItemId(int position) {
@@ -21,17 +30,16 @@ public abstract class BaseGroupAdapter<G, C> extends BaseAdapter {
 
     @Override
     public int getCount() {
-        int count = 0;
-        for (int i = 0; i < getGroupCount(); i++) {
-            count += (getChildCount(i) + 1);
-        }
-        return count;
+        return mCount;
     }
 
+    /**
+     * the index is rebuilt before the observers ask for the new positions
+     */
     @Override
     public void notifyDataSetChanged() {
-        super.notifyDataSetChanged();
         initHeaderPositions();
+        super.notifyDataSetChanged();
     }
 
     @Override
@@ -72,41 +80,59 @@ public abstract class BaseGroupAdapter<G, C> extends BaseAdapter {
         return null;
     }
 
+    /**
+     * The groups from groupPositionStart to the end were appended (or replaced),
+     * only they are indexed again, so a page of load more costs the size of the page.
+     * A BaseAdapter can't notify a range, the observers still get a data set change.
+     *
+     * @param groupPositionStart
+     */
+    public void notifyGroupsAppended(int groupPositionStart) {
+        indexHeaderPositions(Math.min(groupPositionStart, mIndexedGroupCount));
+        super.notifyDataSetChanged();
+    }
+
     public void initHeaderPositions() {
-        if (mHeaderPositions == null) {
-            mHeaderPositions = new ArrayList<>();
-        } else {
-            mHeaderPositions.clear();
+        indexHeaderPositions(0);
+    }
+
+    /**
+     * keep the index before groupPositionStart and extend it from there
+     *
+     * @param groupPositionStart
+     */
+    private void indexHeaderPositions(int groupPositionStart) {
+        final int groupCount = getGroupCount();
+        if (mHeaderPositions.length < groupCount) {
+            // grow geometrically so appending pages doesn't copy the index every time
+            mHeaderPositions = Arrays.copyOf(mHeaderPositions, Math.max(groupCount, mHeaderPositions.length * 2));
         }
-        int headerPosition = 0;
-        for (int i = 0; i < getGroupCount(); i++) {
-            if (i == 0) {
-                headerPosition = 0;
-            } else {
-                headerPosition += getChildCount(i - 1) + 1;
-            }
-            mHeaderPositions.add(headerPosition);
+        int headerPosition = groupPositionStart == 0 ? 0
+                : mHeaderPositions[groupPositionStart - 1] + getChildCount(groupPositionStart - 1) + 1;
+        for (int i = groupPositionStart; i < groupCount; i++) {
+            mHeaderPositions[i] = headerPosition;
+            headerPosition += getChildCount(i) + 1;
         }
+        mIndexedGroupCount = groupCount;
+        mCount = headerPosition;
     }
 
     public boolean isPositionHeader(int position) {
-        return mHeaderPositions.contains(position);
+        return Arrays.binarySearch(mHeaderPositions, 0, mIndexedGroupCount, position) >= 0;
     }
 
     public int getGroupPosition(int position) {
-        int groupPosition = 0;
-        for (int i = mHeaderPositions.size() - 1; i >= 0; i--) {
-            if (position >= mHeaderPositions.get(i)) {
-                groupPosition = i;
-                break;
-            }
+        final int index = Arrays.binarySearch(mHeaderPositions, 0, mIndexedGroupCount, position);
+        if (index >= 0) {
+            return index;
         }
-        return groupPosition;
+        // the group of a child is the one before the insertion point
+        return Math.max(0, -index - 2);
     }
 
     public int getChildPositionInGroup(int position) {
         int groupPosition = getGroupPosition(position);
-        int absGroupPosition = mHeaderPositions.get(groupPosition);
+        int absGroupPosition = mHeaderPositions[groupPosition];
         int childPositionInGroup = position - absGroupPosition - 1;
         return childPositionInGroup;
     }
@@ -24,18 +24,58 @@ public class SectionAdapter extends BaseGroupAdapter<Section, Hero> {
 
     List<Section> mSections;
 
+    /**
+     * the bind context, resolved on the first bind and shared by all rows
+     */
+    private int mAvatarSize;
+
+    private CircleTransformation mTransformation;
+
+    /**
+     * tags the avatar requests, so they can be paused while flinging
+     */
+    private final Object mPicassoTag = new Object();
+
     public SectionAdapter() {
         mSections = new ArrayList<>();
     }
 
+    public Object getPicassoTag() {
+        return mPicassoTag;
+    }
+
     public void setList(List<Section> sections) {
         mSections.clear();
         append(sections);
     }
 
     public void append(List<Section> sections) {
+        final int start = mSections.size();
         mSections.addAll(sections);
-        notifyDataSetChanged();
+        notifyGroupsAppended(start);
+    }
+
+    /**
+     * @return a copy of the sections shown, safe to read on another thread
+     */
+    public List<Section> snapshot() {
+        return new ArrayList<>(mSections);
+    }
+
+    /**
+     * keep the sections before the first change, replace the rest and notify only if anything changed
+     *
+     * @param diff calculated against the last {@link #snapshot()}
+     */
+    public void apply(SectionDiff diff) {
+        if (!diff.hasChanges()) {
+            return;
+        }
+        final List<Section> sections = diff.getSections();
+        final int first = diff.getFirstChangedSection();
+        mSections.subList(first, mSections.size()).clear();
+        mSections.addAll(sections.subList(first, sections.size()));
+        notifyGroupsAppended(first);
     }
 
     @Override
@@ -98,13 +138,23 @@ public class SectionAdapter extends BaseGroupAdapter<Section, Hero> {
         }
         Hero hero = getChild(groupPosition, childPosition);
         holder.tvName.setText(hero.getName());
-        Resources resources = parent.getResources();
-        int size = resources.getDimensionPixelOffset(R.dimen.hero_avatar_size);
-        int width = resources.getDimensionPixelOffset(R.dimen.hero_avatar_border);
+        if (mTransformation == null) {
+            Resources resources = parent.getResources();
+            mAvatarSize = resources.getDimensionPixelOffset(R.dimen.hero_avatar_size);
+            mTransformation = new CircleTransformation(resources.getDimensionPixelOffset(R.dimen.hero_avatar_border));
+        }
+        if (hero.getAvatar() == null) {
+            // the heroes of the large list have no picture
+            Picasso.with(parent.getContext()).cancelRequest(holder.ivAvatar);
+            holder.ivAvatar.setVisibility(View.GONE);
+            return convertView;
+        }
+        holder.ivAvatar.setVisibility(View.VISIBLE);
         Picasso.with(parent.getContext())
                 .load(hero.getAvatar())
-                .resize(size, size)
-                .transform(new CircleTransformation(width))
+                .resize(mAvatarSize, mAvatarSize)
+                .transform(mTransformation)
+                .tag(mPicassoTag)
                 .into(holder.ivAvatar);
         return convertView;
     }
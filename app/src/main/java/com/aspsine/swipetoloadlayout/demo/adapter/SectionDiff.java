@@ -0,0 +1,86 @@
+package com.aspsine.swipetoloadlayout.demo.adapter;
+
+import android.text.TextUtils;
+
+import com.aspsine.swipetoloadlayout.demo.model.Hero;
+import com.aspsine.swipetoloadlayout.demo.model.Section;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The difference between the sections shown and a new list of sections.
+ * Calculated off the main thread, applied by {@link SectionAdapter#apply(SectionDiff)}.
+ */
+public class SectionDiff {
+
+    private final List<Section> mSections;
+
+    private final int mFirstChangedSection;
+
+    private final boolean mChanged;
+
+    private SectionDiff(List<Section> sections, int firstChangedSection, boolean changed) {
+        this.mSections = sections;
+        this.mFirstChangedSection = firstChangedSection;
+        this.mChanged = changed;
+    }
+
+    /**
+     * @param oldSections a snapshot of the sections shown, must not change while calculating
+     * @param newSections
+     * @return
+     */
+    public static SectionDiff calculate(List<Section> oldSections, List<Section> newSections) {
+        final int common = Math.min(oldSections.size(), newSections.size());
+        int first = 0;
+        while (first < common && oldSections.get(first).equals(newSections.get(first))) {
+            first++;
+        }
+        final boolean changed = first < oldSections.size() || first < newSections.size();
+        return new SectionDiff(newSections, first, changed);
+    }
+
+    /**
+     * append a page, its first section joins the last one shown if they have the same name
+     *
+     * @param oldSections a snapshot of the sections shown
+     * @param appended
+     * @return
+     */
+    public static SectionDiff append(List<Section> oldSections, List<Section> appended) {
+        final List<Section> sections = new ArrayList<>(oldSections.size() + appended.size());
+        sections.addAll(oldSections);
+        int first = oldSections.size();
+        int next = 0;
+        if (first > 0 && !appended.isEmpty()
+                && TextUtils.equals(oldSections.get(first - 1).getName(), appended.get(0).getName())) {
+            final Section last = oldSections.get(first - 1);
+            final List<Hero> heroes = new ArrayList<>(last.getHeroes());
+            heroes.addAll(appended.get(0).getHeroes());
+            final Section joined = new Section();
+            joined.setName(last.getName());
+            joined.setHeroes(heroes);
+            first--;
+            next++;
+            sections.set(first, joined);
+        }
+        sections.addAll(appended.subList(next, appended.size()));
+        return new SectionDiff(sections, first, !appended.isEmpty());
+    }
+
+    public List<Section> getSections() {
+        return mSections;
+    }
+
+    /**
+     * @return the sections before it are equal to the ones shown and can be kept
+     */
+    public int getFirstChangedSection() {
+        return mFirstChangedSection;
+    }
+
+    public boolean hasChanges() {
+        return mChanged;
+    }
+}
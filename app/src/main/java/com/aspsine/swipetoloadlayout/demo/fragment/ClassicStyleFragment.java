@@ -2,7 +2,6 @@ package com.aspsine.swipetoloadlayout.demo.fragment;
 
 
 import android.os.Bundle;
-import android.os.Handler;
 import android.support.v4.app.Fragment;
 import android.support.v4.view.ViewPager;
 import android.view.LayoutInflater;
@@ -10,25 +9,31 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.AbsListView;
 
+import com.android.volley.Request;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
-import com.android.volley.toolbox.StringRequest;
-import com.aspsine.swipetoloadlayout.OnLoadMoreListener;
-import com.aspsine.swipetoloadlayout.OnRefreshListener;
+import com.aspsine.swipetoloadlayout.PagingController;
 import com.aspsine.swipetoloadlayout.SwipeToLoadLayout;
 import com.aspsine.swipetoloadlayout.demo.App;
 import com.aspsine.swipetoloadlayout.demo.Constants;
 import com.aspsine.swipetoloadlayout.demo.R;
 import com.aspsine.swipetoloadlayout.demo.adapter.LoopViewPagerAdapter;
 import com.aspsine.swipetoloadlayout.demo.adapter.SectionAdapter;
-import com.aspsine.swipetoloadlayout.demo.model.Characters;
+import com.aspsine.swipetoloadlayout.demo.model.Hero;
+import com.aspsine.swipetoloadlayout.demo.request.AllCharactersRequest;
+import com.aspsine.swipetoloadlayout.demo.request.CharactersPage;
+import com.aspsine.swipetoloadlayout.demo.request.CharactersRequest;
+import com.aspsine.swipetoloadlayout.demo.util.PicassoPauser;
 import com.aspsine.swipetoloadlayout.demo.view.LoadAbleListView;
-import com.google.gson.Gson;
+import com.squareup.picasso.Picasso;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A simple {@link Fragment} subclass.
  */
-public class ClassicStyleFragment extends Fragment implements OnRefreshListener, OnLoadMoreListener {
+public class ClassicStyleFragment extends Fragment implements PagingController.PageSource<CharactersPage>, PagingController.PageCallback<CharactersPage> {
     private static final String TAG = ClassicStyleFragment.class.getSimpleName();
 
     private SwipeToLoadLayout swipeToLoadLayout;
@@ -43,6 +48,15 @@ public class ClassicStyleFragment extends Fragment implements OnRefreshListener,
 
     private LoopViewPagerAdapter mPagerAdapter;
 
+    private PagingController<CharactersPage> mPagingController;
+
+    private PicassoPauser mPicassoPauser;
+
+    /**
+     * the heroes shown by the pager
+     */
+    private List<Hero> mHeroes = new ArrayList<>();
+
     public ClassicStyleFragment() {
         // Required empty public constructor
     }
@@ -74,9 +88,13 @@ public class ClassicStyleFragment extends Fragment implements OnRefreshListener,
         viewPager.addOnPageChangeListener(mPagerAdapter);
         listView.addHeaderView(pagerView);
         listView.setAdapter(mAdapter);
+        // pause the avatars while the header or the footer moves, or the list flings
+        mPicassoPauser = new PicassoPauser(view.getContext(), mAdapter.getPicassoTag());
+        swipeToLoadLayout.setOnSwipeSettleListener(mPicassoPauser);
         listView.setOnScrollListener(new AbsListView.OnScrollListener() {
             @Override
             public void onScrollStateChanged(AbsListView view, int scrollState) {
+                mPicassoPauser.setListFlinging(scrollState == SCROLL_STATE_FLING);
             }
 
             @Override
@@ -88,8 +106,7 @@ public class ClassicStyleFragment extends Fragment implements OnRefreshListener,
                 }
             }
         });
-        swipeToLoadLayout.setOnRefreshListener(this);
-        swipeToLoadLayout.setOnLoadMoreListener(this);
+        mPagingController = new PagingController<>(swipeToLoadLayout, 0, this, this);
     }
 
     @Override
@@ -112,38 +129,61 @@ public class ClassicStyleFragment extends Fragment implements OnRefreshListener,
     @Override
     public void onPause() {
         super.onPause();
-        App.getRequestQueue().cancelAll(TAG);
+        mPagingController.cancel();
         mPagerAdapter.stop();
     }
 
     @Override
-    public void onRefresh() {
-        StringRequest request = new StringRequest(Constants.API.CHARACTERS, new Response.Listener<String>() {
+    public void onDestroyView() {
+        super.onDestroyView();
+        mPicassoPauser.release();
+        Picasso.with(getActivity()).cancelTag(mAdapter.getPicassoTag());
+    }
+
+    @Override
+    public void load(final PagingController<CharactersPage>.Request request) {
+        Response.Listener<CharactersPage> listener = new Response.Listener<CharactersPage>() {
             @Override
-            public void onResponse(String s) {
-                Characters characters = new Gson().fromJson(s, Characters.class);
-                mAdapter.setList(characters.getSections());
-                mPagerAdapter.setList(characters.getHeroes());
-                viewPager.setBackgroundDrawable(getResources().getDrawable(R.mipmap.bg_viewpager));
-                swipeToLoadLayout.setRefreshing(false);
+            public void onResponse(CharactersPage page) {
+                request.deliver(page);
             }
-        }, new Response.ErrorListener() {
+        };
+        Response.ErrorListener errorListener = new Response.ErrorListener() {
             @Override
             public void onErrorResponse(VolleyError volleyError) {
-                swipeToLoadLayout.setRefreshing(false);
-                volleyError.printStackTrace();
+                request.fail(volleyError);
             }
-        });
-        App.getRequestQueue().add(request).setTag(TAG);
+        };
+        // parsed and diffed against a snapshot on the network thread,
+        // the main thread only applies the difference
+        Request<CharactersPage> pageRequest;
+        if (request.isRefresh()) {
+            pageRequest = new CharactersRequest(Constants.API.CHARACTERS, mHeroes, mAdapter.snapshot(), listener, errorListener);
+        } else {
+            pageRequest = new AllCharactersRequest(Constants.API.ALL_CHARACTERS, request.getPage(),
+                    mAdapter.snapshot(), listener, errorListener);
+        }
+        App.getRequestQueue().add(pageRequest).setTag(request);
     }
 
     @Override
-    public void onLoadMore() {
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                swipeToLoadLayout.setLoadingMore(false);
-            }
-        }, 1000);
+    public void cancel(PagingController<CharactersPage>.Request request) {
+        App.getRequestQueue().cancelAll(request);
+    }
+
+    @Override
+    public void onPageLoaded(int page, CharactersPage result, boolean refresh) {
+        if (result.isHeroesChanged()) {
+            mHeroes = result.getHeroes();
+            mPagerAdapter.setList(mHeroes);
+            viewPager.setBackgroundDrawable(getResources().getDrawable(R.mipmap.bg_viewpager));
+        }
+        mAdapter.apply(result.getSectionDiff());
+        listView.setLoadMoreAble(!result.isLastPage());
+    }
+
+    @Override
+    public void onPageFailed(int page, Throwable error, boolean refresh) {
+        error.printStackTrace();
     }
 }
@@ -30,4 +30,24 @@ public class Hero{
     public void setAvatar(String avatar) {
         this.avatar = avatar;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Hero hero = (Hero) o;
+        return (name == null ? hero.name == null : name.equals(hero.name))
+                && (avatar == null ? hero.avatar == null : avatar.equals(hero.avatar));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name == null ? 0 : name.hashCode();
+        result = 31 * result + (avatar == null ? 0 : avatar.hashCode());
+        return result;
+    }
 }
@@ -24,4 +24,24 @@ public class Section {
     public void setHeroes(List<Hero> heroes) {
         this.heroes = heroes;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Section section = (Section) o;
+        return (name == null ? section.name == null : name.equals(section.name))
+                && (heroes == null ? section.heroes == null : heroes.equals(section.heroes));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name == null ? 0 : name.hashCode();
+        result = 31 * result + (heroes == null ? 0 : heroes.hashCode());
+        return result;
+    }
 }
@@ -0,0 +1,86 @@
+package com.aspsine.swipetoloadlayout.demo.request;
+
+import android.text.TextUtils;
+
+import com.android.volley.Response;
+import com.aspsine.swipetoloadlayout.demo.adapter.SectionDiff;
+import com.aspsine.swipetoloadlayout.demo.model.Hero;
+import com.aspsine.swipetoloadlayout.demo.model.Section;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a page of the large {@link com.aspsine.swipetoloadlayout.demo.Constants.API#ALL_CHARACTERS} list
+ * and groups it into sections by alphabet to append, both on the network thread.
+ * The list isn't paged by the server, so a page is a slice of {@link #PAGE_SIZE} characters of it.
+ */
+public class AllCharactersRequest extends StreamParseRequest<CharactersPage> {
+
+    public static final int PAGE_SIZE = 100;
+
+    private final int mPage;
+
+    private final List<Section> mOldSections;
+
+    /**
+     * @param url
+     * @param page          the load more page, from 1
+     * @param oldSections   a snapshot of the sections shown
+     * @param listener
+     * @param errorListener
+     */
+    public AllCharactersRequest(String url, int page, List<Section> oldSections,
+                                Response.Listener<CharactersPage> listener, Response.ErrorListener errorListener) {
+        super(url, listener, errorListener);
+        this.mPage = page;
+        this.mOldSections = oldSections;
+    }
+
+    @Override
+    protected CharactersPage parse(JsonReader reader) throws IOException {
+        final int first = (mPage - 1) * PAGE_SIZE;
+        final int end = first + PAGE_SIZE;
+        List<Section> sections = new ArrayList<>();
+        Section section = null;
+        int index = 0;
+        reader.beginArray();
+        while (reader.hasNext() && index < end) {
+            if (index++ < first) {
+                reader.skipValue();
+                continue;
+            }
+            String alphabet = null;
+            String title = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("alphabet".equals(name)) {
+                    alphabet = reader.nextString();
+                } else if ("title".equals(name)) {
+                    title = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            // the list is sorted by alphabet
+            if (section == null || !TextUtils.equals(section.getName(), alphabet)) {
+                section = new Section();
+                section.setName(alphabet);
+                section.setHeroes(new ArrayList<Hero>());
+                sections.add(section);
+            }
+            // the list has no pictures
+            Hero hero = new Hero();
+            hero.setName(title);
+            section.getHeroes().add(hero);
+        }
+        // the rest of the list is left unread
+        final boolean lastPage = !reader.hasNext();
+        // a page may start in the middle of the last section shown
+        return new CharactersPage(null, false, SectionDiff.append(mOldSections, sections), lastPage);
+    }
+}
@@ -0,0 +1,49 @@
+package com.aspsine.swipetoloadlayout.demo.request;
+
+import com.aspsine.swipetoloadlayout.demo.adapter.SectionDiff;
+import com.aspsine.swipetoloadlayout.demo.model.Hero;
+
+import java.util.List;
+
+/**
+ * A page of characters, parsed and diffed off the main thread.
+ */
+public class CharactersPage {
+
+    private final List<Hero> mHeroes;
+
+    private final boolean mHeroesChanged;
+
+    private final SectionDiff mSectionDiff;
+
+    private final boolean mLastPage;
+
+    public CharactersPage(List<Hero> heroes, boolean heroesChanged, SectionDiff sectionDiff, boolean lastPage) {
+        this.mHeroes = heroes;
+        this.mHeroesChanged = heroesChanged;
+        this.mSectionDiff = sectionDiff;
+        this.mLastPage = lastPage;
+    }
+
+    /**
+     * @return the heroes of the pager, null when the page doesn't have any
+     */
+    public List<Hero> getHeroes() {
+        return mHeroes;
+    }
+
+    public boolean isHeroesChanged() {
+        return mHeroesChanged;
+    }
+
+    public SectionDiff getSectionDiff() {
+        return mSectionDiff;
+    }
+
+    /**
+     * @return whether there is nothing more to load after this page
+     */
+    public boolean isLastPage() {
+        return mLastPage;
+    }
+}
@@ -0,0 +1,100 @@
+package com.aspsine.swipetoloadlayout.demo.request;
+
+import com.android.volley.Response;
+import com.aspsine.swipetoloadlayout.demo.adapter.SectionDiff;
+import com.aspsine.swipetoloadlayout.demo.model.Hero;
+import com.aspsine.swipetoloadlayout.demo.model.Section;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads {@link com.aspsine.swipetoloadlayout.demo.Constants.API#CHARACTERS} and diffs it
+ * against the data shown, both on the network thread.
+ */
+public class CharactersRequest extends StreamParseRequest<CharactersPage> {
+
+    private final List<Hero> mOldHeroes;
+
+    private final List<Section> mOldSections;
+
+    /**
+     * @param url
+     * @param oldHeroes   a snapshot of the heroes shown
+     * @param oldSections a snapshot of the sections shown
+     * @param listener
+     * @param errorListener
+     */
+    public CharactersRequest(String url, List<Hero> oldHeroes, List<Section> oldSections,
+                             Response.Listener<CharactersPage> listener, Response.ErrorListener errorListener) {
+        super(url, listener, errorListener);
+        this.mOldHeroes = oldHeroes;
+        this.mOldSections = oldSections;
+    }
+
+    @Override
+    protected CharactersPage parse(JsonReader reader) throws IOException {
+        List<Hero> heroes = new ArrayList<>();
+        List<Section> sections = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("heroes".equals(name)) {
+                readHeroes(reader, heroes);
+            } else if ("sections".equals(name)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    sections.add(readSection(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        // the load more starts over from the first page of the large list
+        return new CharactersPage(heroes, !heroes.equals(mOldHeroes), SectionDiff.calculate(mOldSections, sections), false);
+    }
+
+    private static Section readSection(JsonReader reader) throws IOException {
+        Section section = new Section();
+        List<Hero> heroes = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("name".equals(name)) {
+                section.setName(reader.nextString());
+            } else if ("heroes".equals(name)) {
+                readHeroes(reader, heroes);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        section.setHeroes(heroes);
+        return section;
+    }
+
+    private static void readHeroes(JsonReader reader, List<Hero> heroes) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Hero hero = new Hero();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("name".equals(name)) {
+                    hero.setName(reader.nextString());
+                } else if ("avatar".equals(name)) {
+                    hero.setAvatar(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            heroes.add(hero);
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,56 @@
+package com.aspsine.swipetoloadlayout.demo.request;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * Parses the response with a streaming {@link JsonReader} on the network thread,
+ * so neither the whole response string nor a json tree is built,
+ * and the main thread only receives the result.
+ */
+public abstract class StreamParseRequest<T> extends Request<T> {
+
+    private final Response.Listener<T> mListener;
+
+    public StreamParseRequest(String url, Response.Listener<T> listener, Response.ErrorListener errorListener) {
+        super(Method.GET, url, errorListener);
+        this.mListener = listener;
+    }
+
+    @Override
+    protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        try {
+            JsonReader reader = new JsonReader(new InputStreamReader(
+                    new ByteArrayInputStream(response.data), HttpHeaderParser.parseCharset(response.headers)));
+            try {
+                return Response.success(parse(reader), HttpHeaderParser.parseCacheHeaders(response));
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            return Response.error(new ParseError(e));
+        }
+    }
+
+    @Override
+    protected void deliverResponse(T response) {
+        mListener.onResponse(response);
+    }
+
+    /**
+     * runs on the network thread, anything heavy about the result belongs here too
+     *
+     * @param reader
+     * @return
+     * @throws IOException
+     */
+    protected abstract T parse(JsonReader reader) throws IOException;
+}
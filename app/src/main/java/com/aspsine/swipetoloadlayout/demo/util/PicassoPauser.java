@@ -0,0 +1,67 @@
+package com.aspsine.swipetoloadlayout.demo.util;
+
+import android.content.Context;
+
+import com.aspsine.swipetoloadlayout.OnSwipeSettleListener;
+import com.squareup.picasso.Picasso;
+
+/**
+ * Pauses the picasso requests of a tag while the list flings or the header(footer) moves,
+ * and resumes them when both have settled, so the frames go to the gesture.
+ */
+public class PicassoPauser implements OnSwipeSettleListener {
+
+    private final Picasso mPicasso;
+
+    private final Object mTag;
+
+    private boolean mListFlinging;
+
+    private boolean mSwipeMoving;
+
+    private boolean mPaused;
+
+    public PicassoPauser(Context context, Object tag) {
+        this.mPicasso = Picasso.with(context);
+        this.mTag = tag;
+    }
+
+    public void setListFlinging(boolean flinging) {
+        mListFlinging = flinging;
+        update();
+    }
+
+    @Override
+    public void onSwipeStarted() {
+        mSwipeMoving = true;
+        update();
+    }
+
+    @Override
+    public void onSwipeSettled() {
+        mSwipeMoving = false;
+        update();
+    }
+
+    /**
+     * resume the tag for good, picasso keeps a paused tag paused until it's resumed
+     */
+    public void release() {
+        mListFlinging = false;
+        mSwipeMoving = false;
+        update();
+    }
+
+    private void update() {
+        final boolean pause = mListFlinging || mSwipeMoving;
+        if (pause == mPaused) {
+            return;
+        }
+        mPaused = pause;
+        if (pause) {
+            mPicasso.pauseTag(mTag);
+        } else {
+            mPicasso.resumeTag(mTag);
+        }
+    }
+}
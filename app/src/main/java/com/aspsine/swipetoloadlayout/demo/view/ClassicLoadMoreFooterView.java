@@ -1,24 +1,29 @@
 package com.aspsine.swipetoloadlayout.demo.view;
 
 import android.content.Context;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import com.aspsine.swipetoloadlayout.SwipeLoadMoreFooterLayout;
+import com.aspsine.swipetoloadlayout.SwipeProgressTrigger;
 import com.aspsine.swipetoloadlayout.demo.R;
 
 /**
  * Created by Aspsine on 2015/9/2.
  */
-public class ClassicLoadMoreFooterView extends SwipeLoadMoreFooterLayout {
+public class ClassicLoadMoreFooterView extends SwipeLoadMoreFooterLayout implements SwipeProgressTrigger {
+    /**
+     * the text fades in over 10 steps on the way to the trigger offset
+     */
+    private static final int PROGRESS_STEPS = 10;
+
     private TextView tvLoadMore;
     private ImageView ivSuccess;
     private ProgressBar progressBar;
 
-    private int mFooterHeight;
-
     public ClassicLoadMoreFooterView(Context context) {
         this(context, null);
     }
@@ -29,7 +34,6 @@ public class ClassicLoadMoreFooterView extends SwipeLoadMoreFooterLayout {
 
     public ClassicLoadMoreFooterView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        mFooterHeight = getResources().getDimensionPixelOffset(R.dimen.load_more_footer_height_classic);
     }
 
     @Override
@@ -43,13 +47,28 @@ public class ClassicLoadMoreFooterView extends SwipeLoadMoreFooterLayout {
     @Override
     public void onPrepare() {
         ivSuccess.setVisibility(GONE);
+        progressBar.setVisibility(GONE);
+        tvLoadMore.setText("SWIPE TO LOAD MORE");
     }
 
     @Override
     public void onSwipe(int y) {
-        ivSuccess.setVisibility(GONE);
-        progressBar.setVisibility(GONE);
-        if (-y >= mFooterHeight) {
+        // not called on a SwipeProgressTrigger, see onProgressStep(int, float) and onTriggerCrossed(boolean)
+    }
+
+    @Override
+    public int getProgressSteps() {
+        return PROGRESS_STEPS;
+    }
+
+    @Override
+    public void onProgressStep(int step, float progress) {
+        ViewCompat.setAlpha(tvLoadMore, (float) step / PROGRESS_STEPS);
+    }
+
+    @Override
+    public void onTriggerCrossed(boolean beyond) {
+        if (beyond) {
             tvLoadMore.setText("RELEASE TO LOAD MORE");
         } else {
             tvLoadMore.setText("SWIPE TO LOAD MORE");
@@ -70,6 +89,9 @@ public class ClassicLoadMoreFooterView extends SwipeLoadMoreFooterLayout {
 
     @Override
     public void onReset() {
+        // a load more set by the code scrolls the footer in without onPrepare()
         ivSuccess.setVisibility(GONE);
+        progressBar.setVisibility(GONE);
+        tvLoadMore.setText("SWIPE TO LOAD MORE");
     }
 }
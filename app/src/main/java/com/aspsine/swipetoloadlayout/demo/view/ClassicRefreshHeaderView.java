@@ -2,20 +2,26 @@ package com.aspsine.swipetoloadlayout.demo.view;
 
 import android.content.Context;
 import android.graphics.drawable.Drawable;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
+import com.aspsine.swipetoloadlayout.SwipeProgressTrigger;
 import com.aspsine.swipetoloadlayout.SwipeRefreshHeaderLayout;
 import com.aspsine.swipetoloadlayout.demo.R;
 
 /**
  * Created by Aspsine on 2015/9/2.
  */
-public class ClassicRefreshHeaderView extends SwipeRefreshHeaderLayout {
-    private int mHeaderHeight;
+public class ClassicRefreshHeaderView extends SwipeRefreshHeaderLayout implements SwipeProgressTrigger {
+    /**
+     * the arrow fades in over 10 steps on the way to the trigger offset
+     */
+    private static final int PROGRESS_STEPS = 10;
+
     private TextView tvRefresh;
     private ImageView ivArrow;
     private ImageView ivSuccess;
@@ -36,7 +42,6 @@ public class ClassicRefreshHeaderView extends SwipeRefreshHeaderLayout {
     public ClassicRefreshHeaderView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
 
-        mHeaderHeight = getResources().getDimensionPixelOffset(R.dimen.refresh_header_height_classic);
         arrowUp = getResources().getDrawable(R.mipmap.classic_arrow_up);
         arrowDown = getResources().getDrawable(R.mipmap.classic_arrow_down);
     }
@@ -53,22 +58,37 @@ public class ClassicRefreshHeaderView extends SwipeRefreshHeaderLayout {
     public void onPrepare() {
         Log.d("ClassicRefreshHeader", "onPrepare()");
         ivSuccess.setVisibility(GONE);
+        progressBar.setVisibility(GONE);
+        ivArrow.setVisibility(VISIBLE);
+        ivArrow.setBackgroundDrawable(arrowDown);
+        tvRefresh.setText("SWIPE TO REFRESH");
     }
 
     @Override
     public void onSwipe(int y) {
-        Log.d("ClassicRefreshHeader", "onSwipe(" + y + ")");
-        ivArrow.setVisibility(VISIBLE);
-        progressBar.setVisibility(GONE);
-        ivSuccess.setVisibility(GONE);
-        if (y > mHeaderHeight) {
+        // not called on a SwipeProgressTrigger, see onProgressStep(int, float) and onTriggerCrossed(boolean)
+    }
+
+    @Override
+    public int getProgressSteps() {
+        return PROGRESS_STEPS;
+    }
+
+    @Override
+    public void onProgressStep(int step, float progress) {
+        ViewCompat.setAlpha(ivArrow, (float) step / PROGRESS_STEPS);
+    }
+
+    @Override
+    public void onTriggerCrossed(boolean beyond) {
+        Log.d("ClassicRefreshHeader", "onTriggerCrossed(" + beyond + ")");
+        if (beyond) {
             tvRefresh.setText("RELEASE TO REFRESH");
             ivArrow.setBackgroundDrawable(arrowUp);
-        } else if (y < mHeaderHeight) {
+        } else {
             ivArrow.setBackgroundDrawable(arrowDown);
             tvRefresh.setText("SWIPE TO REFRESH");
         }
-
     }
 
     @Override
@@ -83,9 +103,12 @@ public class ClassicRefreshHeaderView extends SwipeRefreshHeaderLayout {
     @Override
     public void onReset() {
         Log.d("ClassicRefreshHeader", "onReset()");
+        // a refresh set by the code scrolls the header in without onPrepare()
         ivSuccess.setVisibility(GONE);
-        ivArrow.setVisibility(GONE);
         progressBar.setVisibility(GONE);
+        ivArrow.setVisibility(VISIBLE);
+        ivArrow.setBackgroundDrawable(arrowDown);
+        tvRefresh.setText("SWIPE TO REFRESH");
     }
 
     @Override
@@ -3,38 +3,170 @@ package com.aspsine.swipetoloadlayout.demo.view;
 import android.content.Context;
 import android.util.AttributeSet;
 import android.view.View;
+import android.widget.AbsListView;
 import android.widget.ListView;
 
+import com.aspsine.swipetoloadlayout.EdgeObservable;
 import com.aspsine.swipetoloadlayout.LoadMoreAble;
+import com.aspsine.swipetoloadlayout.OnEdgeChangedListener;
+import com.aspsine.swipetoloadlayout.PrefetchAble;
 import com.aspsine.swipetoloadlayout.RefreshAble;
+import com.aspsine.swipetoloadlayout.SwipeToLoadLayout;
 
 /**
  * Created by Aspsine on 2015/9/2.
  */
-public class LoadAbleListView extends ListView implements RefreshAble, LoadMoreAble {
+public class LoadAbleListView extends ListView implements RefreshAble, LoadMoreAble, EdgeObservable, PrefetchAble {
 
     private boolean mRefreshAble = true;
 
     private boolean mLoadMoreAble = true;
 
+    private OnEdgeChangedListener mOnEdgeChangedListener;
+
+    private boolean mCanRefresh;
+
+    private boolean mCanLoadMore;
+
+    private OnScrollListener mOnScrollListener;
+
+    private int mScrollState = OnScrollListener.SCROLL_STATE_IDLE;
+
+    /**
+     * where the list was at the last scroll, to tell how fast it flings
+     */
+    private boolean mAtTop = true;
+
+    private boolean mAtBottom = true;
+
+    private int mLastFirstPosition = -1;
+
+    private int mLastFirstTop;
+
+    private long mLastScrollNanos;
+
+    /**
+     * pixels per second, positive when scrolling towards the end
+     */
+    private float mFlingVelocity;
+
     public LoadAbleListView(Context context) {
         super(context);
+        init();
     }
 
     public LoadAbleListView(Context context, AttributeSet attrs) {
         super(context, attrs);
+        init();
     }
 
     public LoadAbleListView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    /**
+     * the scroll state tells a fling, the listener set by the app still gets everything
+     */
+    private void init() {
+        super.setOnScrollListener(new OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(AbsListView view, int scrollState) {
+                mScrollState = scrollState;
+                if (mOnScrollListener != null) {
+                    mOnScrollListener.onScrollStateChanged(view, scrollState);
+                }
+            }
+
+            @Override
+            public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+                if (mOnScrollListener != null) {
+                    mOnScrollListener.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void setOnScrollListener(OnScrollListener l) {
+        this.mOnScrollListener = l;
     }
 
     public void setRefreshAble(boolean mRefreshAble) {
         this.mRefreshAble = mRefreshAble;
+        notifyEdgeChanged(true);
     }
 
     public void setLoadMoreAble(boolean mLoadMoreAble) {
         this.mLoadMoreAble = mLoadMoreAble;
+        notifyEdgeChanged(true);
+    }
+
+    @Override
+    public void setOnEdgeChangedListener(OnEdgeChangedListener listener) {
+        this.mOnEdgeChangedListener = listener;
+        notifyEdgeChanged(true);
+    }
+
+    /**
+     * ListView calls it after every scroll and layout
+     */
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        notifyEdgeChanged(false);
+        trackFlingVelocity();
+        final boolean atTop = canChildScrollDown();
+        final boolean atBottom = canChildScrollUp();
+        if ((atTop && !mAtTop && mFlingVelocity < 0) || (atBottom && !mAtBottom && mFlingVelocity > 0)) {
+            absorbFlingToParent();
+        }
+        mAtTop = atTop;
+        mAtBottom = atBottom;
+    }
+
+    /**
+     * a fling scrolls once per frame, the speed is how far a child moved over the last frame time
+     */
+    private void trackFlingVelocity() {
+        final long now = System.nanoTime();
+        final int first = getFirstVisiblePosition();
+        float velocity = 0;
+        if (mScrollState == OnScrollListener.SCROLL_STATE_FLING && mLastFirstPosition >= 0 && now > mLastScrollNanos) {
+            final View child = getChildAt(mLastFirstPosition - first);
+            if (child != null) {
+                velocity = (mLastFirstTop - child.getTop()) * 1000000000f / (now - mLastScrollNanos);
+            }
+        }
+        mFlingVelocity = velocity;
+        mLastScrollNanos = now;
+        final View firstChild = getChildAt(0);
+        mLastFirstPosition = firstChild != null ? first : -1;
+        mLastFirstTop = firstChild != null ? firstChild.getTop() : 0;
+    }
+
+    /**
+     * the fling reached the top or the bottom, hand what is left of it to the header(footer)
+     */
+    private void absorbFlingToParent() {
+        if (getParent() instanceof SwipeToLoadLayout
+                && ((SwipeToLoadLayout) getParent()).absorbFling(-mFlingVelocity)) {
+            // stop the fling
+            smoothScrollBy(0, 0);
+        }
+    }
+
+    private void notifyEdgeChanged(boolean force) {
+        if (mOnEdgeChangedListener == null) {
+            return;
+        }
+        final boolean canRefresh = onCheckCanRefresh();
+        final boolean canLoadMore = onCheckCanLoadMore();
+        if (force || canRefresh != mCanRefresh || canLoadMore != mCanLoadMore) {
+            mCanRefresh = canRefresh;
+            mCanLoadMore = canLoadMore;
+            mOnEdgeChangedListener.onEdgeChanged(canRefresh, canLoadMore);
+        }
     }
 
     @Override
@@ -42,6 +174,11 @@ public class LoadAbleListView extends ListView implements RefreshAble, LoadMoreA
         return canChildScrollUp() && mLoadMoreAble;
     }
 
+    @Override
+    public boolean isLoadMoreAble() {
+        return mLoadMoreAble;
+    }
+
     @Override
     public boolean onCheckCanRefresh() {
         return canChildScrollDown() && mRefreshAble;
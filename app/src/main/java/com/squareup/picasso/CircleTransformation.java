@@ -1,12 +1,12 @@
 package com.squareup.picasso;
 
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.Shader;
+import android.os.Build;
 
 /**
  * Created by aspsine on 15/9/5.
@@ -15,58 +15,106 @@ public class CircleTransformation implements Transformation {
     private static final int DEFAULT_BORDER_WIDTH = 10;
     private static final int DEFAULT_BORDER_COLOR = Color.parseColor("#000000");
 
-    int mBorderWidth = 0;
-    int mBorderColor = 0;
+    /**
+     * picasso transforms on several threads, each one draws with its own tools
+     */
+    private static final ThreadLocal<Drawer> DRAWER = new ThreadLocal<Drawer>() {
+        @Override
+        protected Drawer initialValue() {
+            return new Drawer();
+        }
+    };
+
+    final int mBorderWidth;
+    final int mBorderColor;
+
+    /**
+     * built once, picasso asks for it on the main thread for every request
+     */
+    private final String mKey;
 
     public CircleTransformation() {
-        mBorderWidth = DEFAULT_BORDER_WIDTH;
-        mBorderColor = DEFAULT_BORDER_COLOR;
+        this(DEFAULT_BORDER_WIDTH, DEFAULT_BORDER_COLOR);
     }
 
     public CircleTransformation(int borderWidth) {
-        this.mBorderWidth = borderWidth;
-        this.mBorderColor = DEFAULT_BORDER_COLOR;
+        this(borderWidth, DEFAULT_BORDER_COLOR);
     }
 
     public CircleTransformation(int borderWidth, int borderColor) {
         this.mBorderWidth = borderWidth;
         this.mBorderColor = borderColor;
+        this.mKey = getClass().getSimpleName() + "(borderWidth=" + borderWidth + ", borderColor=" + borderColor + ")";
     }
 
+    /**
+     * The centered square of the source is drawn through a shader matrix, without copying it
+     * to an intermediate bitmap. The output itself can't be reused, picasso keeps it in its cache.
+     *
+     * @param source
+     * @return
+     */
     @Override
     public Bitmap transform(Bitmap source) {
         int width = source.getWidth();
         int height = source.getHeight();
         int diameter = Math.min(width, height);
-        int x = (width - diameter)/2;
-        int y =(height - diameter)/2;
-        Bitmap squareBitmap = Bitmap.createBitmap(source, x, y, diameter, diameter);
-        if (squareBitmap != source) {
-            source.recycle();
-        }
-        Bitmap bitmap = Bitmap.createBitmap(diameter, diameter, source.getConfig());
-        Canvas canvas = new Canvas(bitmap);
-        Paint paint = new Paint();
-        BitmapShader shader = new BitmapShader(squareBitmap, BitmapShader.TileMode.CLAMP, BitmapShader.TileMode.CLAMP);
-        paint.setShader(shader);
-        paint.setAntiAlias(true);
+        int x = (width - diameter) / 2;
+        int y = (height - diameter) / 2;
+        Bitmap.Config config = source.getConfig() != null ? source.getConfig() : Bitmap.Config.ARGB_8888;
+        Bitmap bitmap = Bitmap.createBitmap(diameter, diameter, config);
 
+        Drawer drawer = DRAWER.get();
+        Canvas canvas = drawer.obtainCanvas(bitmap);
         float radius = diameter / 2f;
-
         if (mBorderWidth > 0) {
-            Paint bgPaint = new Paint();
-            bgPaint.setColor(mBorderColor);
-            bgPaint.setAntiAlias(true);
-            canvas.drawCircle(radius , radius , radius , bgPaint);
+            drawer.borderPaint.setColor(mBorderColor);
+            canvas.drawCircle(radius, radius, radius, drawer.borderPaint);
         }
-        canvas.drawCircle(radius, radius, radius-mBorderWidth, paint);
-        squareBitmap.recycle();
-        squareBitmap = null;
+        BitmapShader shader = new BitmapShader(source, BitmapShader.TileMode.CLAMP, BitmapShader.TileMode.CLAMP);
+        drawer.matrix.setTranslate(-x, -y);
+        shader.setLocalMatrix(drawer.matrix);
+        drawer.paint.setShader(shader);
+        canvas.drawCircle(radius, radius, radius - mBorderWidth, drawer.paint);
+        drawer.release();
+
+        source.recycle();
         return bitmap;
     }
 
     @Override
     public String key() {
-        return getClass().getSimpleName();
+        return mKey;
+    }
+
+    private static class Drawer {
+        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        final Paint borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        final Matrix matrix = new Matrix();
+        private Canvas canvas;
+
+        /**
+         * a canvas can only be detached from its bitmap on api 11+
+         */
+        Canvas obtainCanvas(Bitmap bitmap) {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
+                return new Canvas(bitmap);
+            }
+            if (canvas == null) {
+                canvas = new Canvas();
+            }
+            canvas.setBitmap(bitmap);
+            return canvas;
+        }
+
+        /**
+         * don't keep the source and the output alive until the next transform
+         */
+        void release() {
+            paint.setShader(null);
+            if (canvas != null) {
+                canvas.setBitmap(null);
+            }
+        }
     }
 }
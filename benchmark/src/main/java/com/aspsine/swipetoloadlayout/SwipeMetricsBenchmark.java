@@ -0,0 +1,79 @@
+package com.aspsine.swipetoloadlayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The cost {@link SwipeMetrics} adds to every finger and auto scrolling frame.
+ */
+@State(Scope.Thread)
+public class SwipeMetricsBenchmark {
+
+    private static final long FRAME_PERIOD_NANOS = SwipeMetrics.DEFAULT_FRAME_PERIOD_NANOS;
+
+    /**
+     * on time frames with a late one and a dropped one, the timeline is the same on every run
+     */
+    private static final long[] FRAME_INTERVALS = {
+            FRAME_PERIOD_NANOS, FRAME_PERIOD_NANOS, FRAME_PERIOD_NANOS + FRAME_PERIOD_NANOS / 3,
+            FRAME_PERIOD_NANOS, FRAME_PERIOD_NANOS * 2, FRAME_PERIOD_NANOS, FRAME_PERIOD_NANOS,
+            FRAME_PERIOD_NANOS - FRAME_PERIOD_NANOS / 4
+    };
+
+    private SwipeMetrics mMetrics;
+
+    private long mFrameTime;
+
+    private int mFrame;
+
+    @Setup
+    public void setUp() {
+        mMetrics = new SwipeMetrics();
+        mFrameTime = 0;
+        mFrame = 0;
+    }
+
+    private long nextFrameTime() {
+        mFrameTime += FRAME_INTERVALS[mFrame++ & (FRAME_INTERVALS.length - 1)];
+        return mFrameTime;
+    }
+
+    @Benchmark
+    public int fingerFrame() {
+        mMetrics.onFingerFrame(nextFrameTime());
+        return mMetrics.getFingerFrames().getFrameCount();
+    }
+
+    @Benchmark
+    public int autoScrollFrame() {
+        mMetrics.onAutoScrollFrame(nextFrameTime());
+        return mMetrics.getAutoScrollFrames().getDroppedFrames();
+    }
+
+    /**
+     * a whole cycle: 30 finger frames, release, 12 auto scrolling frames, trigger,
+     * complete and 30 auto scrolling frames back to default
+     */
+    @Benchmark
+    public long swipeCycle() {
+        mMetrics.reset();
+        for (int i = 0; i < 30; i++) {
+            mMetrics.onFingerFrame(nextFrameTime());
+        }
+        mMetrics.onRelease(mFrameTime);
+        mMetrics.getAutoScrollFrames().startSegment();
+        for (int i = 0; i < 12; i++) {
+            mMetrics.onAutoScrollFrame(nextFrameTime());
+        }
+        mMetrics.onTrigger(mFrameTime);
+        mMetrics.onComplete(mFrameTime);
+        mMetrics.getAutoScrollFrames().startSegment();
+        for (int i = 0; i < 30; i++) {
+            mMetrics.onAutoScrollFrame(nextFrameTime());
+        }
+        mMetrics.onSettle(mFrameTime);
+        return mMetrics.getSettleLatencyNanos() + mMetrics.getAutoScrollFrames().getLongestFrameNanos();
+    }
+}
@@ -0,0 +1,63 @@
+package com.aspsine.swipetoloadlayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The position math every frame of a swipe runs before the children are moved, per style.
+ */
+@State(Scope.Thread)
+public class SwipePositionsBenchmark {
+
+    private static final int TOP = 24;
+
+    private static final int BOTTOM = 1776;
+
+    private static final int TRIGGER_HEIGHT = 150;
+
+    /**
+     * the offsets of a pull down past the trigger offset and back, the same on every run
+     */
+    private static final int[] OFFSETS = new int[64];
+
+    static {
+        for (int i = 0; i < OFFSETS.length; i++) {
+            OFFSETS[i] = i < OFFSETS.length / 2 ? i * 7 : (OFFSETS.length - i) * 7;
+        }
+    }
+
+    /**
+     * {@link SwipePositions#STYLE_CLASSIC}, {@link SwipePositions#STYLE_ABOVE},
+     * {@link SwipePositions#STYLE_BLEW} and {@link SwipePositions#STYLE_SCALE}
+     */
+    @Param({"0", "1", "2", "3"})
+    public int style;
+
+    /**
+     * the header and the target of a refresh swipe, 64 frames
+     */
+    @Benchmark
+    public int refreshSwipe() {
+        int sum = 0;
+        for (int offset : OFFSETS) {
+            sum += SwipePositions.getHeaderTop(style, TOP, TRIGGER_HEIGHT, offset);
+            sum += SwipePositions.getTargetTop(style, TOP, offset);
+        }
+        return sum;
+    }
+
+    /**
+     * the target and the footer of a load more swipe, 64 frames
+     */
+    @Benchmark
+    public int loadMoreSwipe() {
+        int sum = 0;
+        for (int offset : OFFSETS) {
+            sum += SwipePositions.getTargetTop(style, TOP, -offset);
+            sum += SwipePositions.getFooterBottom(style, BOTTOM, TRIGGER_HEIGHT, -offset);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,110 @@
+package com.aspsine.swipetoloadlayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.aspsine.swipetoloadlayout.SwipeStateEngine.STATUS;
+
+/**
+ * The cost of the status machine on every ACTION_MOVE (fingerScroll)
+ * and every auto scrolling frame (updateScroll).
+ */
+@State(Scope.Thread)
+public class SwipeStateEngineBenchmark {
+
+    private static final int TRIGGER_OFFSET = 150;
+
+    private static final int FINAL_DRAG_OFFSET = 400;
+
+    /**
+     * a drag down past the trigger offset and back, the same on every run
+     */
+    private static final float[] DRAG = new float[64];
+
+    static {
+        for (int i = 0; i < DRAG.length; i++) {
+            DRAG[i] = i < DRAG.length / 2 ? 12.5f : -3.125f;
+        }
+    }
+
+    private SwipeStateEngine mEngine;
+
+    private long mTime;
+
+    @Setup
+    public void setUp() {
+        mEngine = new SwipeStateEngine(new SwipeStateEngine.Callback() {
+            @Override
+            public boolean canRefresh() {
+                return true;
+            }
+
+            @Override
+            public boolean canLoadMore() {
+                return true;
+            }
+
+            @Override
+            public void onStatusChanged(byte oldStatus, byte newStatus, long timeNanos) {
+            }
+
+            @Override
+            public void onRefreshReset() {
+            }
+
+            @Override
+            public void onLoadMoreReset() {
+            }
+
+            @Override
+            public void onRefreshSwipe(int targetOffset) {
+            }
+
+            @Override
+            public void onLoadMoreSwipe(int targetOffset) {
+            }
+
+            @Override
+            public void onScrolled(int targetOffset, long timeNanos) {
+            }
+        });
+        mEngine.setRefreshTriggerOffset(TRIGGER_OFFSET);
+        mEngine.setLoadMoreTriggerOffset(TRIGGER_OFFSET);
+        mEngine.setRefreshFinalDragOffset(FINAL_DRAG_OFFSET);
+        mEngine.setLoadMoreFinalDragOffset(FINAL_DRAG_OFFSET);
+    }
+
+    /**
+     * one whole drag gesture, 64 ACTION_MOVEs
+     */
+    @Benchmark
+    public int fingerScrollGesture() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        for (float yDiff : DRAG) {
+            mEngine.fingerScroll(yDiff, mTime++);
+        }
+        // back to default for the next invocation
+        mEngine.updateScroll(-mEngine.getTargetOffset(), mTime++);
+        return mEngine.getStatus();
+    }
+
+    /**
+     * release to refreshing and refresh complete to default, 30 frames each way
+     */
+    @Benchmark
+    public int updateScrollAutoScroll() {
+        mEngine.setLoading(true);
+        mEngine.setStatus(STATUS.STATUS_REFRESHING, mTime++);
+        for (int i = 0; i < 30; i++) {
+            mEngine.updateScroll(5, mTime++);
+        }
+        mEngine.setLoading(false);
+        mEngine.setStatus(STATUS.STATS_REFRESH_COMPLETE, mTime++);
+        for (int i = 0; i < 30; i++) {
+            mEngine.updateScroll(-5, mTime++);
+        }
+        return mEngine.getStatus();
+    }
+}
@@ -0,0 +1,134 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Makes sure the drag path ACTION_MOVE -> fingerScroll -> updateScroll -> layoutChildren
+ * doesn't allocate, an allocation there means GC pauses in the middle of a gesture.
+ */
+public class SwipeToLoadLayoutAllocationTest extends InstrumentationTestCase {
+
+    private static final int WIDTH = 480;
+
+    private static final int HEIGHT = 800;
+
+    private static final int TRIGGER_HEIGHT = 100;
+
+    private static final int MOVE_COUNT = 60;
+
+    private static final float MOVE_STEP = 10;
+
+    private SwipeToLoadLayout mLayout;
+
+    private MotionEvent mDownEvent;
+
+    private MotionEvent[] mWarmUpEvents;
+
+    private MotionEvent[] mMoveEvents;
+
+    private MotionEvent mUpEvent;
+
+    private int mAllocCount;
+
+    public void testDragDoesNotAllocate() throws Exception {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout(getInstrumentation().getTargetContext());
+                obtainEvents();
+
+                mLayout.dispatchTouchEvent(mDownEvent);
+                // first pass initializes the lazy state of the views and the touch targets
+                for (MotionEvent event : mWarmUpEvents) {
+                    mLayout.dispatchTouchEvent(event);
+                }
+
+                Debug.resetThreadAllocCount();
+                Debug.startAllocCounting();
+                for (int i = 0; i < mMoveEvents.length; i++) {
+                    mLayout.dispatchTouchEvent(mMoveEvents[i]);
+                }
+                Debug.stopAllocCounting();
+                mAllocCount = Debug.getThreadAllocCount();
+
+                mLayout.dispatchTouchEvent(mUpEvent);
+                recycleEvents();
+            }
+        });
+        assertEquals("allocations while dragging", 0, mAllocCount);
+    }
+
+    private void setUpLayout(Context context) {
+        mLayout = new SwipeToLoadLayout(context);
+        mLayout.addView(new SwipeRefreshHeaderLayout(context),
+                new SwipeToLoadLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, TRIGGER_HEIGHT));
+        mLayout.addView(new TargetView(context),
+                new SwipeToLoadLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mLayout.addView(new SwipeLoadMoreFooterLayout(context),
+                new SwipeToLoadLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, TRIGGER_HEIGHT));
+        mLayout.onFinishInflate();
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * every pass swipes down past the trigger offset and back up to the default status,
+     * so all the status transitions of a gesture are covered
+     */
+    private void obtainEvents() {
+        final long downTime = SystemClock.uptimeMillis();
+        final float startY = HEIGHT / 2;
+        mDownEvent = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, WIDTH / 2, startY, 0);
+        mWarmUpEvents = obtainMoveEvents(downTime, startY);
+        mMoveEvents = obtainMoveEvents(downTime, startY);
+        mUpEvent = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_UP, WIDTH / 2, startY, 0);
+    }
+
+    private MotionEvent[] obtainMoveEvents(long downTime, float startY) {
+        final MotionEvent[] events = new MotionEvent[MOVE_COUNT * 2];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            events[i] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_MOVE,
+                    WIDTH / 2, startY + (i + 1) * MOVE_STEP, 0);
+        }
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            events[MOVE_COUNT + i] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_MOVE,
+                    WIDTH / 2, startY + (MOVE_COUNT - i - 1) * MOVE_STEP, 0);
+        }
+        return events;
+    }
+
+    private void recycleEvents() {
+        mDownEvent.recycle();
+        for (MotionEvent event : mWarmUpEvents) {
+            event.recycle();
+        }
+        for (MotionEvent event : mMoveEvents) {
+            event.recycle();
+        }
+        mUpEvent.recycle();
+    }
+
+    private static class TargetView extends View implements RefreshAble, LoadMoreAble {
+
+        public TargetView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean onCheckCanRefresh() {
+            return true;
+        }
+
+        @Override
+        public boolean onCheckCanLoadMore() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.content.Context;
+import android.support.v4.view.ViewCompat;
+import android.test.InstrumentationTestCase;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * A nested scrolling child reaching its edge only shows the header(footer)
+ * if the target can refresh(load more).
+ */
+public class SwipeToLoadLayoutNestedScrollTest extends InstrumentationTestCase {
+
+    private static final int WIDTH = 480;
+
+    private static final int HEIGHT = 800;
+
+    private static final int TRIGGER_HEIGHT = 100;
+
+    private static final int SCROLL = 50;
+
+    private static final float FLING_VELOCITY = 8000;
+
+    private SwipeToLoadLayout mLayout;
+
+    private TargetView mTarget;
+
+    private int mTargetTop;
+
+    private boolean mFlingAbsorbed;
+
+    public void testNestedScrollWithLoadMoreDisabled() throws Exception {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout(getInstrumentation().getTargetContext(), false);
+                mLayout.onNestedScrollAccepted(mTarget, mTarget, ViewCompat.SCROLL_AXIS_VERTICAL);
+                // the child is at the bottom and leaves the whole scroll towards its end
+                mLayout.onNestedScroll(mTarget, 0, 0, 0, SCROLL);
+                mTargetTop = mTarget.getTop();
+                mFlingAbsorbed = mLayout.onNestedFling(mTarget, 0, FLING_VELOCITY, false);
+                mLayout.onStopNestedScroll(mTarget);
+            }
+        });
+        assertEquals("target top", 0, mTargetTop);
+        assertFalse("fling absorbed", mFlingAbsorbed);
+        assertFalse("loading more", mLayout.isLoadingMore());
+    }
+
+    public void testNestedScrollWithLoadMoreEnabled() throws Exception {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout(getInstrumentation().getTargetContext(), true);
+                mLayout.onNestedScrollAccepted(mTarget, mTarget, ViewCompat.SCROLL_AXIS_VERTICAL);
+                mLayout.onNestedScroll(mTarget, 0, 0, 0, SCROLL);
+                mTargetTop = mTarget.getTop();
+                mLayout.onStopNestedScroll(mTarget);
+            }
+        });
+        assertTrue("target top " + mTargetTop, mTargetTop < 0);
+    }
+
+    private void setUpLayout(Context context, boolean loadMoreAble) {
+        mLayout = new SwipeToLoadLayout(context);
+        mTarget = new TargetView(context, loadMoreAble);
+        mLayout.addView(new SwipeRefreshHeaderLayout(context),
+                new SwipeToLoadLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, TRIGGER_HEIGHT));
+        mLayout.addView(mTarget,
+                new SwipeToLoadLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mLayout.addView(new SwipeLoadMoreFooterLayout(context),
+                new SwipeToLoadLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, TRIGGER_HEIGHT));
+        mLayout.onFinishInflate();
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * at both edges, like a list shorter than the layout
+     */
+    private static class TargetView extends View implements RefreshAble, LoadMoreAble {
+
+        private final boolean mLoadMoreAble;
+
+        public TargetView(Context context, boolean loadMoreAble) {
+            super(context);
+            mLoadMoreAble = loadMoreAble;
+        }
+
+        @Override
+        public boolean onCheckCanRefresh() {
+            return true;
+        }
+
+        @Override
+        public boolean onCheckCanLoadMore() {
+            return mLoadMoreAble;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * A target that pushes its edge state to {@link SwipeToLoadLayout} instead of being polled
+ * by {@link RefreshAble#onCheckCanRefresh()} and {@link LoadMoreAble#onCheckCanLoadMore()}.
+ * The current state should be reported as soon as the listener is set, and again
+ * every time it changes.
+ */
+public interface EdgeObservable {
+    public void setOnEdgeChangedListener(OnEdgeChangedListener listener);
+}
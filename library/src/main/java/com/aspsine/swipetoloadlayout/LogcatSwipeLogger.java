@@ -0,0 +1,31 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.util.Log;
+
+/**
+ * A {@link SwipeLogger} print the events to logcat, for debug builds only.
+ */
+public class LogcatSwipeLogger implements SwipeLogger {
+
+    private final String mTag;
+
+    public LogcatSwipeLogger() {
+        this(SwipeToLoadLayout.class.getSimpleName());
+    }
+
+    public LogcatSwipeLogger(String tag) {
+        this.mTag = tag;
+    }
+
+    @Override
+    public void onStatusChanged(int oldStatus, int newStatus, long timeNanos) {
+        Log.d(mTag, "status:" + SwipeStateEngine.STATUS.getStatus(oldStatus)
+                + " -> " + SwipeStateEngine.STATUS.getStatus(newStatus) + "; time=" + timeNanos);
+    }
+
+    @Override
+    public void onScroll(int targetOffset, int status, long timeNanos) {
+        Log.i(mTag, "mTargetOffset:" + targetOffset + "; Status=" + SwipeStateEngine.STATUS.getStatus(status)
+                + "; time=" + timeNanos);
+    }
+}
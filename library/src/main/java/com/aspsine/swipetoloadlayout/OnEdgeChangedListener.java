@@ -0,0 +1,8 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Receives the edge state of an {@link EdgeObservable} target, on the main thread.
+ */
+public interface OnEdgeChangedListener {
+    public void onEdgeChanged(boolean canRefresh, boolean canLoadMore);
+}
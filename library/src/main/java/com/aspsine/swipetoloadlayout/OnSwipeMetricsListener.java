@@ -0,0 +1,8 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Receives the {@link SwipeMetrics} of every swipe cycle, on the main thread.
+ */
+public interface OnSwipeMetricsListener {
+    public void onSwipeMetrics(SwipeMetrics metrics);
+}
@@ -0,0 +1,13 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Tells when the header(footer) starts and stops moving, by the finger or by the auto scroll,
+ * so heavy work like decoding images can wait for the gesture to settle. On the main thread.
+ */
+public interface OnSwipeSettleListener {
+
+    public void onSwipeStarted();
+
+    public void onSwipeSettled();
+
+}
@@ -0,0 +1,238 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Drives the refresh and load more of a {@link SwipeToLoadLayout} from a {@link PageSource}.
+ * <p>
+ * Only one page is in flight: a repeated trigger joins the page in flight, a load more waits
+ * for a refresh, and a refresh cancels the load more in flight. Once a page is loaded the header(footer)
+ * is closed, and the result is delivered on the main thread once it settles, see
+ * {@link SwipeToLoadLayout#commitAfterSettle(Runnable)}.
+ * All methods must be called on the main thread except {@link Request#deliver(Object)}
+ * and {@link Request#fail(Throwable)}.
+ */
+public class PagingController<T> implements OnRefreshListener, OnLoadMoreListener {
+
+    private final SwipeToLoadLayout mLayout;
+
+    private final PageSource<T> mSource;
+
+    private final PageCallback<T> mCallback;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final int mFirstPage;
+
+    /**
+     * the last page loaded since the last refresh
+     */
+    private int mPage;
+
+    /**
+     * the page in flight, a delivered request which isn't the one in flight is stale
+     */
+    private Request mInFlight;
+
+    public PagingController(SwipeToLoadLayout layout, int firstPage, PageSource<T> source, PageCallback<T> callback) {
+        this.mLayout = layout;
+        this.mFirstPage = firstPage;
+        this.mPage = firstPage - 1;
+        this.mSource = source;
+        this.mCallback = callback;
+        layout.setOnRefreshListener(this);
+        layout.setOnLoadMoreListener(this);
+    }
+
+    @Override
+    public void onRefresh() {
+        if (mInFlight != null) {
+            if (mInFlight.mRefresh) {
+                // coalesce with the refresh in flight
+                return;
+            }
+            // the list is about to be replaced, the next page of the old one is stale
+            cancelInFlight();
+            mLayout.setLoadingMore(false);
+        }
+        start(mFirstPage, true);
+    }
+
+    @Override
+    public void onLoadMore() {
+        if (mInFlight != null) {
+            if (mInFlight.mRefresh) {
+                // wait for the refresh, the next page depends on it
+                mLayout.setLoadingMore(false);
+            }
+            // otherwise the footer closes with the load more in flight
+            return;
+        }
+        start(mPage + 1, false);
+    }
+
+    /**
+     * @return whether a page is in flight
+     */
+    public boolean isLoading() {
+        return mInFlight != null;
+    }
+
+    /**
+     * cancel the page in flight and close the header(footer), e.g. when the host stops
+     */
+    public void cancel() {
+        if (mInFlight == null) {
+            return;
+        }
+        final boolean refresh = mInFlight.mRefresh;
+        cancelInFlight();
+        if (refresh) {
+            mLayout.setRefreshing(false);
+        } else {
+            mLayout.setLoadingMore(false);
+        }
+    }
+
+    private void start(int page, boolean refresh) {
+        final Request request = new Request(page, refresh);
+        mInFlight = request;
+        mSource.load(request);
+    }
+
+    private void cancelInFlight() {
+        final Request request = mInFlight;
+        mInFlight = null;
+        request.mCancelled = true;
+        mHandler.removeCallbacks(request);
+        mSource.cancel(request);
+    }
+
+    /**
+     * on the main thread, once per request
+     *
+     * @param request
+     */
+    private void dispatch(final Request request) {
+        if (request != mInFlight) {
+            // cancelled or replaced by a refresh
+            return;
+        }
+        mInFlight = null;
+        if (request.mError == null) {
+            mPage = request.mPage;
+        }
+        mLayout.commitAfterSettle(new Runnable() {
+            @Override
+            public void run() {
+                if (request.mError == null) {
+                    mCallback.onPageLoaded(request.mPage, request.mResult, request.mRefresh);
+                } else {
+                    mCallback.onPageFailed(request.mPage, request.mError, request.mRefresh);
+                }
+            }
+        });
+        if (request.mRefresh) {
+            mLayout.setRefreshing(false);
+        } else {
+            mLayout.setLoadingMore(false);
+        }
+    }
+
+    /**
+     * A page to load. Deliver the result or the failure from any thread, only the first one counts.
+     */
+    public final class Request implements Runnable {
+
+        private final int mPage;
+
+        private final boolean mRefresh;
+
+        private volatile boolean mCancelled;
+
+        private boolean mDone;
+
+        private T mResult;
+
+        private Throwable mError;
+
+        private Request(int page, boolean refresh) {
+            this.mPage = page;
+            this.mRefresh = refresh;
+        }
+
+        public int getPage() {
+            return mPage;
+        }
+
+        public boolean isRefresh() {
+            return mRefresh;
+        }
+
+        /**
+         * @return whether the result isn't wanted any more, a source may check it to skip work
+         */
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+
+        public void deliver(T result) {
+            synchronized (this) {
+                if (mDone) {
+                    return;
+                }
+                mDone = true;
+                mResult = result;
+            }
+            mHandler.post(this);
+        }
+
+        public void fail(Throwable error) {
+            synchronized (this) {
+                if (mDone) {
+                    return;
+                }
+                mDone = true;
+                mError = error;
+            }
+            mHandler.post(this);
+        }
+
+        @Override
+        public void run() {
+            dispatch(this);
+        }
+    }
+
+    /**
+     * Loads the pages, usually over the network.
+     */
+    public interface PageSource<T> {
+
+        /**
+         * start loading the page of the request, finish by {@link Request#deliver(Object)}
+         * or {@link Request#fail(Throwable)}
+         *
+         * @param request
+         */
+        public void load(PagingController<T>.Request request);
+
+        /**
+         * the result of the request won't be dispatched, stop loading it if possible
+         *
+         * @param request
+         */
+        public void cancel(PagingController<T>.Request request);
+    }
+
+    /**
+     * Receives the pages on the main thread, once the header(footer) is closed and settled.
+     */
+    public interface PageCallback<T> {
+
+        public void onPageLoaded(int page, T result, boolean refresh);
+
+        public void onPageFailed(int page, Throwable error, boolean refresh);
+    }
+}
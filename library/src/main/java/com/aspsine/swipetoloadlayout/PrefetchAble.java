@@ -0,0 +1,19 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * A target that tells how close it is to its end, so {@link SwipeToLoadLayout}
+ * can load more before the user reaches it. {@link android.widget.AdapterView}
+ * subclasses already have both methods.
+ */
+public interface PrefetchAble {
+
+    public int getCount();
+
+    public int getLastVisiblePosition();
+
+    /**
+     * @return false once there is nothing more to load, e.g. at the end of the data
+     */
+    public boolean isLoadMoreAble();
+
+}
@@ -0,0 +1,123 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * A {@link SwipeAnimator} moving the header(footer) like a damped spring, continuing from the release velocity.
+ * It ignores the durations, a fast release settles in far fewer frames than a fixed duration.
+ * The header(footer) stops when it reaches the distance, it never overshoots past it.
+ */
+public class SpringSwipeAnimator implements SwipeAnimator {
+
+    /**
+     * as stiff as {@code SpringForce.STIFFNESS_MEDIUM} of the support dynamic animation
+     */
+    public static final float DEFAULT_STIFFNESS = 1500f;
+
+    /**
+     * critically damped, the fastest to settle without bouncing
+     */
+    public static final float DEFAULT_DAMPING_RATIO = 1f;
+
+    /**
+     * closer than half a pixel is drawn at the distance
+     */
+    private static final float VALUE_THRESHOLD = 0.5f;
+
+    /**
+     * the natural frequency in radians per second, of a unit mass
+     */
+    private final double mNaturalFrequency;
+
+    private final double mDampingRatio;
+
+    public SpringSwipeAnimator() {
+        this(DEFAULT_STIFFNESS, DEFAULT_DAMPING_RATIO);
+    }
+
+    /**
+     * @param stiffness    of a unit mass spring, the higher the faster
+     * @param dampingRatio 1 for no bounce, below 1 it comes faster but stops on its first arrival
+     */
+    public SpringSwipeAnimator(float stiffness, float dampingRatio) {
+        if (stiffness <= 0 || dampingRatio <= 0) {
+            throw new IllegalArgumentException("Stiffness and damping ratio must be positive");
+        }
+        this.mNaturalFrequency = Math.sqrt(stiffness);
+        this.mDampingRatio = dampingRatio;
+    }
+
+    @Override
+    public Move newMove() {
+        return new SpringMove();
+    }
+
+    /**
+     * the closed form of the damped spring, so a late frame never drifts from the curve
+     */
+    private class SpringMove implements Move {
+
+        private int mDistance;
+
+        /**
+         * the coefficients of the displacement from the distance, see {@link #getDisplacement(double)}
+         */
+        private double mA;
+
+        private double mB;
+
+        @Override
+        public void reset(int distance, float velocity, int duration) {
+            mDistance = distance;
+            // the displacement starts at -distance with the release velocity
+            final double u0 = -distance;
+            final double w = mNaturalFrequency;
+            final double z = mDampingRatio;
+            if (z < 1) {
+                final double wd = w * Math.sqrt(1 - z * z);
+                mA = u0;
+                mB = (velocity + z * w * u0) / wd;
+            } else if (z == 1) {
+                mA = u0;
+                mB = velocity + w * u0;
+            } else {
+                final double root = Math.sqrt(z * z - 1);
+                final double r1 = -w * (z - root);
+                final double r2 = -w * (z + root);
+                mB = (velocity - r1 * u0) / (r2 - r1);
+                mA = u0 - mB;
+            }
+        }
+
+        @Override
+        public float getValue(long elapsedMillis) {
+            if (isFinished(elapsedMillis)) {
+                return mDistance;
+            }
+            return (float) (mDistance + getDisplacement(elapsedMillis / 1000d));
+        }
+
+        @Override
+        public boolean isFinished(long elapsedMillis) {
+            final double u = getDisplacement(elapsedMillis / 1000d);
+            // reached or crossed the distance, a header(footer) past it would turn into the other one
+            return Math.abs(u) < VALUE_THRESHOLD || u * -mDistance <= 0;
+        }
+
+        /**
+         * @param t seconds since the start
+         * @return the position minus the distance
+         */
+        private double getDisplacement(double t) {
+            final double w = mNaturalFrequency;
+            final double z = mDampingRatio;
+            if (z < 1) {
+                final double wd = w * Math.sqrt(1 - z * z);
+                return Math.exp(-z * w * t) * (mA * Math.cos(wd * t) + mB * Math.sin(wd * t));
+            } else if (z == 1) {
+                return Math.exp(-w * t) * (mA + mB * t);
+            } else {
+                final double root = Math.sqrt(z * z - 1);
+                return mA * Math.exp(-w * (z - root) * t) + mB * Math.exp(-w * (z + root) * t);
+            }
+        }
+    }
+}
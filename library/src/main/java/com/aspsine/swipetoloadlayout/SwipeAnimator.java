@@ -0,0 +1,50 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Moves the header(footer) of {@link SwipeToLoadLayout} when it scrolls by itself,
+ * e.g. to the refreshing offset after a release or back to default after a complete.
+ * It is driven by the frame time, a move may be cancelled at any frame by resetting it for another one.
+ * An animator may be shared by several layouts, the state of a move belongs to the {@link Move}.
+ * On the main thread.
+ *
+ * @see SpringSwipeAnimator
+ */
+public interface SwipeAnimator {
+
+    /**
+     * create the move a layout reuses for every auto scroll, so a scroll doesn't allocate
+     *
+     * @return a move, {@link Move#reset(int, float, int)} before the first frame
+     */
+    public Move newMove();
+
+    /**
+     * The moves of the header(footer) of one layout, one at a time
+     */
+    public interface Move {
+
+        /**
+         * start over
+         *
+         * @param distance the pixels to move, negative when moving up
+         * @param velocity the pixels per second the header(footer) moves at when released, positive when moving down,
+         *                 0 when it isn't released
+         * @param duration the duration set for this move in milliseconds
+         */
+        public void reset(int distance, float velocity, int duration);
+
+        /**
+         * @param elapsedMillis the time since the start
+         * @return the pixels moved at the time
+         */
+        public float getValue(long elapsedMillis);
+
+        /**
+         * @param elapsedMillis the time since the start
+         * @return whether the distance is reached at the time
+         */
+        public boolean isFinished(long elapsedMillis);
+
+    }
+
+}
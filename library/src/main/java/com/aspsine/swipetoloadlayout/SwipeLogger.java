@@ -0,0 +1,28 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Traces the status machine of {@link SwipeToLoadLayout}.
+ * The events are typed values instead of strings, the layout doesn't build
+ * any string or read the clock unless a logger is set.
+ * Events are reported on the main thread, implementations should return quickly.
+ */
+public interface SwipeLogger {
+
+    /**
+     * the status changed
+     *
+     * @param oldStatus
+     * @param newStatus
+     * @param timeNanos {@link System#nanoTime()} of the transition
+     */
+    void onStatusChanged(int oldStatus, int newStatus, long timeNanos);
+
+    /**
+     * the target offset changed by finger or auto scrolling
+     *
+     * @param targetOffset
+     * @param status
+     * @param timeNanos    {@link System#nanoTime()} of the scroll
+     */
+    void onScroll(int targetOffset, int status, long timeNanos);
+}
@@ -0,0 +1,212 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Frame and latency metrics of one swipe cycle of {@link SwipeToLoadLayout},
+ * from leaving the default status until returning to it.
+ * <p/>
+ * The instance is reused by the layout, copy the values you need in
+ * {@link OnSwipeMetricsListener#onSwipeMetrics(SwipeMetrics)} instead of keeping it.
+ */
+public class SwipeMetrics {
+
+    public static final long NO_VALUE = -1;
+
+    /**
+     * 60fps
+     */
+    static final long DEFAULT_FRAME_PERIOD_NANOS = 1000000000L / 60;
+
+    /**
+     * the move events come when the finger moves, a still finger isn't a dropped frame
+     */
+    private final FrameStats mFingerFrames = new FrameStats(false);
+
+    private final FrameStats mAutoScrollFrames = new FrameStats(true);
+
+    private long mFramePeriodNanos = DEFAULT_FRAME_PERIOD_NANOS;
+
+    private boolean mLoadMore;
+
+    private long mReleaseTime;
+
+    private long mTriggerLatency;
+
+    private long mCompleteTime;
+
+    private long mSettleLatency;
+
+    public SwipeMetrics() {
+        reset();
+    }
+
+    /**
+     * move events of the finger scrolling phase, only counted,
+     * the dropped frames and the longest frame are always 0
+     *
+     * @return
+     */
+    public FrameStats getFingerFrames() {
+        return mFingerFrames;
+    }
+
+    /**
+     * frames of the auto scrolling phase
+     *
+     * @return
+     */
+    public FrameStats getAutoScrollFrames() {
+        return mAutoScrollFrames;
+    }
+
+    /**
+     * @return true if the cycle is a load more one, false if it is a refresh one
+     */
+    public boolean isLoadMore() {
+        return mLoadMore;
+    }
+
+    /**
+     * nanoseconds from the finger released in release to refresh (load more) status
+     * to {@link OnRefreshListener#onRefresh()} ({@link OnLoadMoreListener#onLoadMore()}),
+     * {@link #NO_VALUE} if it wasn't triggered by a release
+     *
+     * @return
+     */
+    public long getTriggerLatencyNanos() {
+        return mTriggerLatency;
+    }
+
+    /**
+     * nanoseconds from {@link SwipeToLoadLayout#setRefreshing(boolean)}
+     * ({@link SwipeToLoadLayout#setLoadingMore(boolean)}) false to the default status,
+     * {@link #NO_VALUE} if it didn't complete
+     *
+     * @return
+     */
+    public long getSettleLatencyNanos() {
+        return mSettleLatency;
+    }
+
+    /**
+     * the duration of a display frame, used to count the dropped frames
+     *
+     * @return
+     */
+    public long getFramePeriodNanos() {
+        return mFramePeriodNanos;
+    }
+
+    void setFramePeriodNanos(long framePeriodNanos) {
+        if (framePeriodNanos > 0) {
+            this.mFramePeriodNanos = framePeriodNanos;
+        }
+    }
+
+    void reset() {
+        mFingerFrames.reset();
+        mAutoScrollFrames.reset();
+        mLoadMore = false;
+        mReleaseTime = NO_VALUE;
+        mTriggerLatency = NO_VALUE;
+        mCompleteTime = NO_VALUE;
+        mSettleLatency = NO_VALUE;
+    }
+
+    void setLoadMore(boolean loadMore) {
+        this.mLoadMore = loadMore;
+    }
+
+    void onFingerFrame(long frameTimeNanos) {
+        mFingerFrames.onFrame(frameTimeNanos, mFramePeriodNanos);
+    }
+
+    void onAutoScrollFrame(long frameTimeNanos) {
+        mAutoScrollFrames.onFrame(frameTimeNanos, mFramePeriodNanos);
+    }
+
+    void onRelease(long timeNanos) {
+        mReleaseTime = timeNanos;
+    }
+
+    void onTrigger(long timeNanos) {
+        if (mReleaseTime != NO_VALUE && mTriggerLatency == NO_VALUE) {
+            mTriggerLatency = timeNanos - mReleaseTime;
+        }
+    }
+
+    void onComplete(long timeNanos) {
+        mCompleteTime = timeNanos;
+    }
+
+    void onSettle(long timeNanos) {
+        if (mCompleteTime != NO_VALUE) {
+            mSettleLatency = timeNanos - mCompleteTime;
+        }
+    }
+
+    /**
+     * frame count, dropped frames and the longest frame of a phase
+     */
+    public static class FrameStats {
+
+        /**
+         * whether the frames come on every vsync, so a gap between them is dropped frames
+         */
+        private final boolean mTimed;
+
+        private int mFrameCount;
+
+        private int mDroppedFrames;
+
+        private long mLongestFrameNanos;
+
+        private long mLastFrameTime;
+
+        FrameStats(boolean timed) {
+            this.mTimed = timed;
+        }
+
+        public int getFrameCount() {
+            return mFrameCount;
+        }
+
+        public int getDroppedFrames() {
+            return mDroppedFrames;
+        }
+
+        public long getLongestFrameNanos() {
+            return mLongestFrameNanos;
+        }
+
+        void reset() {
+            mFrameCount = 0;
+            mDroppedFrames = 0;
+            mLongestFrameNanos = 0;
+            mLastFrameTime = NO_VALUE;
+        }
+
+        /**
+         * the next frame doesn't follow the previous one, e.g. a new finger down
+         * or a new auto scrolling, so the gap isn't counted as a frame
+         */
+        void startSegment() {
+            mLastFrameTime = NO_VALUE;
+        }
+
+        void onFrame(long frameTimeNanos, long framePeriodNanos) {
+            mFrameCount++;
+            if (mTimed && mLastFrameTime != NO_VALUE) {
+                final long frameNanos = frameTimeNanos - mLastFrameTime;
+                if (frameNanos > mLongestFrameNanos) {
+                    mLongestFrameNanos = frameNanos;
+                }
+                // a frame took n periods means n - 1 frames dropped, half a period for vsync jitter
+                final long periods = (frameNanos + framePeriodNanos / 2) / framePeriodNanos;
+                if (periods > 1) {
+                    mDroppedFrames += periods - 1;
+                }
+            }
+            mLastFrameTime = frameTimeNanos;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * Where the header, the target and the footer of {@link SwipeToLoadLayout} go in each style,
+ * without any Android dependency. Computed on every frame of a swipe.
+ */
+final class SwipePositions {
+
+    /**
+     * the styles in the order of {@link SwipeToLoadLayout.STYLE}
+     */
+    static final int STYLE_CLASSIC = 0;
+
+    static final int STYLE_ABOVE = 1;
+
+    static final int STYLE_BLEW = 2;
+
+    static final int STYLE_SCALE = 3;
+
+    private SwipePositions() {
+    }
+
+    /**
+     * @param style
+     * @param top          the top of the content, padding and margin included
+     * @param headerHeight
+     * @param headerOffset
+     * @return the header's top
+     */
+    static int getHeaderTop(int style, int top, int headerHeight, int headerOffset) {
+        switch (style) {
+            case STYLE_BLEW:
+                // blew
+                return top;
+            case STYLE_SCALE:
+                // scale
+                return top - headerHeight / 2 + headerOffset / 2;
+            default:
+                // classic and above
+                return top - headerHeight + headerOffset;
+        }
+    }
+
+    /**
+     * @param style
+     * @param top          the top of the content, padding and margin included
+     * @param targetOffset
+     * @return the target's top
+     */
+    static int getTargetTop(int style, int top, int targetOffset) {
+        switch (style) {
+            case STYLE_ABOVE:
+                // above
+                return top;
+            default:
+                // classic, blew and scale
+                return top + targetOffset;
+        }
+    }
+
+    /**
+     * @param style
+     * @param bottom       the bottom of the content, padding and margin included
+     * @param footerHeight
+     * @param footerOffset negative when the footer is out
+     * @return the footer's bottom
+     */
+    static int getFooterBottom(int style, int bottom, int footerHeight, int footerOffset) {
+        switch (style) {
+            case STYLE_BLEW:
+                // blew
+                return bottom;
+            case STYLE_SCALE:
+                // scale
+                return bottom + footerHeight / 2 + footerOffset / 2;
+            default:
+                // classic and above
+                return bottom + footerHeight + footerOffset;
+        }
+    }
+}
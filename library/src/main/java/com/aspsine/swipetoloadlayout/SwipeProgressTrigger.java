@@ -0,0 +1,29 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * A header(footer) implementing it gets coarse events instead of {@link SwipeTrigger#onSwipe(int)}
+ * on every pixel, so it only touches its views when something visible changes. On the main thread.
+ */
+public interface SwipeProgressTrigger {
+
+    /**
+     * @return how many steps the way to the trigger offset is split into, 0 for none
+     */
+    public int getProgressSteps();
+
+    /**
+     * the progress reached another step
+     *
+     * @param step     from 0 to {@link #getProgressSteps()}, which is reached at the trigger offset
+     * @param progress the offset over the trigger offset, beyond 1 past it
+     */
+    public void onProgressStep(int step, float progress);
+
+    /**
+     * the swipe moved the header(footer) across its trigger offset
+     *
+     * @param beyond whether releasing now refreshes(loads more)
+     */
+    public void onTriggerCrossed(boolean beyond);
+
+}
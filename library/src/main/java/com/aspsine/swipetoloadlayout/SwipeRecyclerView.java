@@ -0,0 +1,230 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.content.Context;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
+import android.util.SparseIntArray;
+
+/**
+ * A {@link RecyclerView} target of {@link SwipeToLoadLayout}.
+ * It pushes its edges after every scroll and layout instead of being polled,
+ * tells its position for the load more prefetch, and can share its views with other lists.
+ * Its nested scrolling hands the scroll over to the layout too.
+ */
+public class SwipeRecyclerView extends RecyclerView implements RefreshAble, LoadMoreAble, EdgeObservable, PrefetchAble {
+
+    /**
+     * the max views per type of a {@link RecycledViewPool} until it is set
+     */
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    private boolean mRefreshAble = true;
+
+    private boolean mLoadMoreAble = true;
+
+    /**
+     * the edges after the last scroll or layout
+     */
+    private boolean mAtTop = true;
+
+    private boolean mAtBottom = true;
+
+    private boolean mSharedPool;
+
+    /**
+     * the max views per type set on the pool by {@link #preallocateViews(int, int)},
+     * the pool has no getter for it
+     */
+    private final SparseIntArray mMaxRecycledViews = new SparseIntArray();
+
+    /**
+     * the speed of the content during a fling, pixels per second, positive when scrolling towards the end
+     */
+    private float mFlingVelocity;
+
+    private long mLastScrolledNanos;
+
+    private OnEdgeChangedListener mOnEdgeChangedListener;
+
+    public SwipeRecyclerView(Context context) {
+        super(context);
+    }
+
+    public SwipeRecyclerView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public SwipeRecyclerView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+    }
+
+    public void setRefreshAble(boolean refreshAble) {
+        this.mRefreshAble = refreshAble;
+        notifyEdgeChanged();
+    }
+
+    public void setLoadMoreAble(boolean loadMoreAble) {
+        this.mLoadMoreAble = loadMoreAble;
+        notifyEdgeChanged();
+    }
+
+    @Override
+    public boolean onCheckCanRefresh() {
+        return mAtTop && mRefreshAble;
+    }
+
+    @Override
+    public boolean onCheckCanLoadMore() {
+        return mAtBottom && mLoadMoreAble;
+    }
+
+    @Override
+    public void setOnEdgeChangedListener(OnEdgeChangedListener listener) {
+        this.mOnEdgeChangedListener = listener;
+        notifyEdgeChanged();
+    }
+
+    @Override
+    public boolean isLoadMoreAble() {
+        return mLoadMoreAble;
+    }
+
+    @Override
+    public int getCount() {
+        final Adapter adapter = getAdapter();
+        return adapter == null ? 0 : adapter.getItemCount();
+    }
+
+    @Override
+    public int getLastVisiblePosition() {
+        final LayoutManager layoutManager = getLayoutManager();
+        if (layoutManager == null || layoutManager.getChildCount() == 0) {
+            return -1;
+        }
+        // the last child is the last position, or the first one when the layout is reversed
+        final int first = layoutManager.getPosition(layoutManager.getChildAt(0));
+        final int last = layoutManager.getPosition(layoutManager.getChildAt(layoutManager.getChildCount() - 1));
+        return Math.max(first, last);
+    }
+
+    /**
+     * Share the views with other lists showing the same kind of items, e.g. the pages of a ViewPager.
+     * A {@link LinearLayoutManager} gives its views back to the pool when the list is detached.
+     *
+     * @param pool
+     */
+    public void shareRecycledViewPool(RecycledViewPool pool) {
+        mSharedPool = true;
+        setRecycledViewPool(pool);
+        recycleChildrenOnDetach(getLayoutManager());
+    }
+
+    @Override
+    public void setRecycledViewPool(RecycledViewPool pool) {
+        if (pool != getRecycledViewPool()) {
+            mMaxRecycledViews.clear();
+        }
+        super.setRecycledViewPool(pool);
+    }
+
+    @Override
+    public void setLayoutManager(LayoutManager layout) {
+        super.setLayoutManager(layout);
+        if (mSharedPool) {
+            recycleChildrenOnDetach(layout);
+        }
+    }
+
+    private static void recycleChildrenOnDetach(LayoutManager layout) {
+        if (layout instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) layout).setRecycleChildrenOnDetach(true);
+        }
+    }
+
+    /**
+     * Inflate views of a type into the pool ahead of time, e.g. while the first page is loading,
+     * so the rows aren't inflated while the page is bound or scrolled.
+     *
+     * @param viewType
+     * @param count    the pool keeps at least this many views of the type, a larger max is kept
+     */
+    public void preallocateViews(int viewType, int count) {
+        final Adapter<?> adapter = getAdapter();
+        if (adapter == null) {
+            return;
+        }
+        final RecycledViewPool pool = getRecycledViewPool();
+        final int max = mMaxRecycledViews.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+        if (count > max) {
+            mMaxRecycledViews.put(viewType, count);
+            pool.setMaxRecycledViews(viewType, count);
+        }
+        for (int i = 0; i < count; i++) {
+            pool.putRecycledView(adapter.createViewHolder(this, viewType));
+        }
+    }
+
+    @Override
+    public void onScrolled(int dx, int dy) {
+        super.onScrolled(dx, dy);
+        trackFlingVelocity(dy);
+        final boolean atTop = mAtTop;
+        final boolean atBottom = mAtBottom;
+        updateEdges();
+        if ((!atTop && mAtTop && mFlingVelocity < 0) || (!atBottom && mAtBottom && mFlingVelocity > 0)) {
+            absorbFlingToParent();
+        }
+    }
+
+    /**
+     * a fling scrolls once per frame, the speed is the last step over the last frame time
+     *
+     * @param dy
+     */
+    private void trackFlingVelocity(int dy) {
+        final long now = System.nanoTime();
+        if (getScrollState() == SCROLL_STATE_SETTLING && now > mLastScrolledNanos) {
+            mFlingVelocity = dy * 1000000000f / (now - mLastScrolledNanos);
+        } else {
+            mFlingVelocity = 0;
+        }
+        mLastScrolledNanos = now;
+    }
+
+    /**
+     * the fling reached the top or the bottom, hand what is left of it to the header(footer)
+     */
+    private void absorbFlingToParent() {
+        if (getParent() instanceof SwipeToLoadLayout
+                && ((SwipeToLoadLayout) getParent()).absorbFling(-mFlingVelocity)) {
+            stopScroll();
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
+        updateEdges();
+    }
+
+    /**
+     * the scroll offset and range come from the LayoutManager and only look at the children on the edges
+     */
+    private void updateEdges() {
+        final boolean atTop = !ViewCompat.canScrollVertically(this, -1);
+        final boolean atBottom = !ViewCompat.canScrollVertically(this, 1);
+        if (atTop != mAtTop || atBottom != mAtBottom) {
+            mAtTop = atTop;
+            mAtBottom = atBottom;
+            notifyEdgeChanged();
+        }
+    }
+
+    private void notifyEdgeChanged() {
+        if (mOnEdgeChangedListener != null) {
+            mOnEdgeChangedListener.onEdgeChanged(onCheckCanRefresh(), onCheckCanLoadMore());
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.aspsine.swipetoloadlayout;
+
+/**
+ * The status machine of {@link SwipeToLoadLayout} without any Android dependency.
+ * It turns the scrolled distances into offsets, status transitions and callbacks,
+ * the container does the drawing and the animating.
+ * <p/>
+ * Not thread safe, use it on the thread which handles the touch events.
+ */
+public class SwipeStateEngine {
+
+    /**
+     * how hard to drag
+     */
+    public static final float DEFAULT_DRAG_RATIO = 0.5f;
+
+    private final Callback mCallback;
+
+    /**
+     * status of the engine
+     */
+    private byte mStatus = STATUS.STATUS_DEFAULT;
+
+    /**
+     * header offset
+     */
+    private int mHeaderOffset;
+
+    /**
+     * target offset
+     */
+    private int mTargetOffset;
+
+    /**
+     * footer offset
+     */
+    private int mFooterOffset;
+
+    /**
+     * indicate whither is loading
+     */
+    private boolean mLoading;
+
+    /**
+     * offset to trigger refresh
+     */
+    private float mRefreshTriggerOffset;
+
+    /**
+     * offset to trigger load more
+     */
+    private float mLoadMoreTriggerOffset;
+
+    /**
+     * the max value of top offset
+     */
+    private float mRefreshFinalDragOffset;
+
+    /**
+     * the max value of bottom offset
+     */
+    private float mLoadMoreFinalDragOffset;
+
+    public SwipeStateEngine(Callback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("callback == null");
+        }
+        this.mCallback = callback;
+    }
+
+    public byte getStatus() {
+        return mStatus;
+    }
+
+    public int getHeaderOffset() {
+        return mHeaderOffset;
+    }
+
+    public int getTargetOffset() {
+        return mTargetOffset;
+    }
+
+    public int getFooterOffset() {
+        return mFooterOffset;
+    }
+
+    public boolean isLoading() {
+        return mLoading;
+    }
+
+    public void setLoading(boolean loading) {
+        this.mLoading = loading;
+    }
+
+    /**
+     * set the loading flag for a refresh. a cancel doesn't clear it
+     * while it belongs to a load more, e.g. a stale refresh cancelled
+     */
+    public void setRefreshLoading(boolean loading) {
+        if (loading || !STATUS.isLoadMoreStatus(mStatus)) {
+            this.mLoading = loading;
+        }
+    }
+
+    /**
+     * set the loading flag for a load more. a cancel doesn't clear it
+     * while it belongs to a refresh, e.g. a stale load more cancelled
+     */
+    public void setLoadMoreLoading(boolean loading) {
+        if (loading || !STATUS.isRefreshStatus(mStatus)) {
+            this.mLoading = loading;
+        }
+    }
+
+    public float getRefreshTriggerOffset() {
+        return mRefreshTriggerOffset;
+    }
+
+    public void setRefreshTriggerOffset(float offset) {
+        this.mRefreshTriggerOffset = offset;
+    }
+
+    public float getLoadMoreTriggerOffset() {
+        return mLoadMoreTriggerOffset;
+    }
+
+    public void setLoadMoreTriggerOffset(float offset) {
+        this.mLoadMoreTriggerOffset = offset;
+    }
+
+    public float getRefreshFinalDragOffset() {
+        return mRefreshFinalDragOffset;
+    }
+
+    public void setRefreshFinalDragOffset(float offset) {
+        this.mRefreshFinalDragOffset = offset;
+    }
+
+    public float getLoadMoreFinalDragOffset() {
+        return mLoadMoreFinalDragOffset;
+    }
+
+    public void setLoadMoreFinalDragOffset(float offset) {
+        this.mLoadMoreFinalDragOffset = offset;
+    }
+
+    /**
+     * Set the current status for better control
+     *
+     * @param status
+     * @param timeNanos
+     */
+    public void setStatus(byte status, long timeNanos) {
+        final byte oldStatus = mStatus;
+        mStatus = status;
+        if (oldStatus != status) {
+            mCallback.onStatusChanged(oldStatus, status, timeNanos);
+        }
+    }
+
+    /**
+     * scrolling by physical touch with your fingers
+     *
+     * @param yDiff     the distance the finger moved, positive when moving down
+     * @param timeNanos
+     */
+    public void fingerScroll(final float yDiff, long timeNanos) {
+        float ratio = DEFAULT_DRAG_RATIO;
+        if (STATUS.isSwipingToRefresh(mStatus) || STATUS.isReleaseToRefresh(mStatus)) {
+            if (yDiff > 0) {
+                // swiping to refresh
+                ratio = DEFAULT_DRAG_RATIO;
+            } else if (yDiff < 0) {
+                // refresh returning
+                ratio = DEFAULT_DRAG_RATIO * 4;
+            }
+        } else if (STATUS.isSwipingToLoadMore(mStatus) || STATUS.isReleaseToLoadMore(mStatus)) {
+            if (yDiff > 0) {
+                // load more returning
+                ratio = DEFAULT_DRAG_RATIO * 4;
+            } else if (yDiff < 0) {
+                // swiping to load more
+                ratio = DEFAULT_DRAG_RATIO;
+            }
+        } else if (STATUS.isRefreshing(mStatus)) {
+            if (yDiff < 0 && mTargetOffset <= mRefreshTriggerOffset) {
+                // Refreshing + swipe up
+                ratio = 0;
+            } else if (yDiff > 0) {
+                // Refreshing + swipe down
+                ratio = DEFAULT_DRAG_RATIO;
+            } else {
+                ratio = DEFAULT_DRAG_RATIO * 4;
+            }
+        } else if (STATUS.isLoadingMore(mStatus)) {
+            if (yDiff > 0 && -mTargetOffset <= mLoadMoreTriggerOffset) {
+                // loading more + swipe down
+                ratio = 0;
+            } else if (yDiff < 0) {
+                // swiping + swipe up
+                ratio = DEFAULT_DRAG_RATIO;
+            } else {
+                ratio = DEFAULT_DRAG_RATIO * 4;
+            }
+        }
+
+        float yScrolled = yDiff * ratio;
+
+        // make sure (refresh -> default -> load more) or (load more -> default -> refresh)
+        // forbidden fling jump default status (refresh -> load more)
+        // I am so smart :)
+
+        float tmpTargetOffset = yScrolled + mTargetOffset;
+        if ((tmpTargetOffset > 0 && mTargetOffset < 0)
+                || (yScrolled + mTargetOffset < 0 && mTargetOffset > 0)) {
+            yScrolled = -mTargetOffset;
+        }
+
+        if (mRefreshFinalDragOffset >= mRefreshTriggerOffset
+                && tmpTargetOffset > mRefreshFinalDragOffset) {
+            yScrolled = mRefreshFinalDragOffset - mTargetOffset;
+        } else if (mLoadMoreFinalDragOffset >= mLoadMoreTriggerOffset && -tmpTargetOffset > mLoadMoreFinalDragOffset) {
+            yScrolled = -mLoadMoreFinalDragOffset - mTargetOffset;
+        }
+        updateScroll(yScrolled, timeNanos);
+    }
+
+    /**
+     * Process the scrolling(auto or physical) and append the diff values to mTargetOffset
+     * I think it's the most busy and core method. :) a ha ha ha ha...
+     *
+     * @param yScrolled
+     * @param timeNanos
+     */
+    public void updateScroll(final float yScrolled, long timeNanos) {
+        if (yScrolled == 0) {
+            return;
+        }
+        mTargetOffset += yScrolled;
+        if (mTargetOffset > 0) {
+            if (STATUS.isRefreshStatus(mStatus)) {
+                mHeaderOffset = mTargetOffset;
+                mFooterOffset = 0;
+                if (mTargetOffset < mRefreshTriggerOffset) {
+                    if (STATUS.isReleaseToRefresh(mStatus)) {
+                        setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, timeNanos);
+                    }
+                } else if (mTargetOffset >= mRefreshTriggerOffset) {
+                    if (!STATUS.isRefreshing(mStatus)) {
+                        setStatus(STATUS.STATUS_RELEASE_TO_REFRESH, timeNanos);
+                    }
+                }
+            } else if (STATUS.isStatusDefault(mStatus)) {
+                mHeaderOffset = mTargetOffset;
+                mFooterOffset = 0;
+            }
+        } else if (mTargetOffset < 0) {
+            if (STATUS.isLoadMoreStatus(mStatus)) {
+                mFooterOffset = mTargetOffset;
+                mHeaderOffset = 0;
+                if (-mTargetOffset < mLoadMoreTriggerOffset) {
+                    if (STATUS.isReleaseToLoadMore(mStatus)) {
+                        setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE, timeNanos);
+                    }
+                } else if (-mTargetOffset >= mLoadMoreTriggerOffset) {
+                    if (!STATUS.isLoadingMore(mStatus)) {
+                        setStatus(STATUS.STATUS_RELEASE_TO_LOAD_MORE, timeNanos);
+                    }
+                }
+            } else if (STATUS.isStatusDefault(mStatus)) {
+                mFooterOffset = mTargetOffset;
+                mHeaderOffset = 0;
+            }
+        } else if (mTargetOffset == 0) {
+            if (STATUS.isRefreshing(mStatus) && mLoading) {
+                mTargetOffset = 1;
+                mHeaderOffset = mTargetOffset;
+                mFooterOffset = 0;
+            } else if (STATUS.isLoadingMore(mStatus) && mLoading) {
+                mTargetOffset = -1;
+                mFooterOffset = mTargetOffset;
+                mHeaderOffset = 0;
+            } else {
+                mLoading = false;
+                mHeaderOffset = 0;
+                mFooterOffset = 0;
+                if (STATUS.isRefreshComplete(mStatus) || STATUS.isSwipingToRefresh(mStatus)) {
+                    setStatus(STATUS.STATUS_DEFAULT, timeNanos);
+                    mCallback.onRefreshReset();
+                } else if (STATUS.isLoadMoreComplete(mStatus) || STATUS.isSwipingToLoadMore(mStatus)) {
+                    setStatus(STATUS.STATUS_DEFAULT, timeNanos);
+                    mCallback.onLoadMoreReset();
+                }
+            }
+        }
+
+        if ((mHeaderOffset != 0 && !mCallback.canRefresh())
+                || (mFooterOffset != 0 && !mCallback.canLoadMore())) {
+            mHeaderOffset = 0;
+            mTargetOffset = 0;
+            mFooterOffset = 0;
+            setStatus(STATUS.STATUS_DEFAULT, timeNanos);
+        }
+        if (mTargetOffset > 0 && !STATUS.isRefreshComplete(mStatus)) {
+            mCallback.onRefreshSwipe(mTargetOffset);
+        } else if (mTargetOffset < 0 && !STATUS.isLoadMoreComplete(mStatus)) {
+            mCallback.onLoadMoreSwipe(mTargetOffset);
+        }
+        mCallback.onScrolled(mTargetOffset, timeNanos);
+    }
+
+    /**
+     * The container side of the engine, all methods are invoked synchronously
+     * from {@link #setStatus(byte, long)}, {@link #fingerScroll(float, long)}
+     * and {@link #updateScroll(float, long)}
+     */
+    public interface Callback {
+
+        /**
+         * @return whether the target is at the top and the container can show the header
+         */
+        boolean canRefresh();
+
+        /**
+         * @return whether the target is at the bottom and the container can show the footer
+         */
+        boolean canLoadMore();
+
+        void onStatusChanged(byte oldStatus, byte newStatus, long timeNanos);
+
+        /**
+         * the header returned to the default status
+         */
+        void onRefreshReset();
+
+        /**
+         * the footer returned to the default status
+         */
+        void onLoadMoreReset();
+
+        void onRefreshSwipe(int targetOffset);
+
+        void onLoadMoreSwipe(int targetOffset);
+
+        /**
+         * the offsets are updated, move the children
+         *
+         * @param targetOffset
+         * @param timeNanos
+         */
+        void onScrolled(int targetOffset, long timeNanos);
+    }
+
+    /**
+     * an inner util class.
+     * enum of status
+     */
+    public final static class STATUS {
+        public static final byte STATUS_REFRESH_RETURNING = -5;
+        public static final byte STATS_REFRESH_COMPLETE = -4;
+        public static final byte STATUS_REFRESHING = -3;
+        public static final byte STATUS_RELEASE_TO_REFRESH = -2;
+        public static final byte STATUS_SWIPING_TO_REFRESH = -1;
+        public static final byte STATUS_DEFAULT = 0;
+        public static final byte STATUS_SWIPING_TO_LOAD_MORE = 1;
+        public static final byte STATUS_RELEASE_TO_LOAD_MORE = 2;
+        public static final byte STATUS_LOADING_MORE = 3;
+        public static final byte STATUS_LOAD_MORE_COMPLETE = 4;
+        public static final byte STATUS_LOAD_MORE_RETURNING = 5;
+
+        private STATUS() {
+        }
+
+        public static boolean isRefreshing(final byte status) {
+            return status == STATUS.STATUS_REFRESHING;
+        }
+
+        public static boolean isLoadingMore(final byte status) {
+            return status == STATUS.STATUS_LOADING_MORE;
+        }
+
+        public static boolean isRefreshComplete(final byte status) {
+            return status == STATS_REFRESH_COMPLETE;
+        }
+
+        public static boolean isLoadMoreComplete(final byte status) {
+            return status == STATUS_LOAD_MORE_COMPLETE;
+        }
+
+        public static boolean isRefreshReturning(final byte status) {
+            return status == STATUS.STATUS_REFRESH_RETURNING;
+        }
+
+        public static boolean isLoadMoreReturning(final byte status) {
+            return status == STATUS.STATUS_LOAD_MORE_RETURNING;
+        }
+
+        public static boolean isReleaseToRefresh(final byte status) {
+            return status == STATUS.STATUS_RELEASE_TO_REFRESH;
+        }
+
+        public static boolean isReleaseToLoadMore(final byte status) {
+            return status == STATUS.STATUS_RELEASE_TO_LOAD_MORE;
+        }
+
+        public static boolean isSwipingToRefresh(final byte status) {
+            return status == STATUS.STATUS_SWIPING_TO_REFRESH;
+        }
+
+        public static boolean isSwipingToLoadMore(final byte status) {
+            return status == STATUS.STATUS_SWIPING_TO_LOAD_MORE;
+        }
+
+        public static boolean isRefreshStatus(final byte status) {
+            return status < STATUS.STATUS_DEFAULT;
+        }
+
+        public static boolean isLoadMoreStatus(final int status) {
+            return status > STATUS.STATUS_DEFAULT;
+        }
+
+        public static boolean isStatusDefault(final byte status) {
+            return status == STATUS.STATUS_DEFAULT;
+        }
+
+        public static String getStatus(int status) {
+            final String statusInfo;
+            switch (status) {
+                case STATUS_REFRESH_RETURNING:
+                    statusInfo = "status_refresh_returning";
+                    break;
+                case STATS_REFRESH_COMPLETE:
+                    statusInfo = "stats_refresh_complete";
+                    break;
+                case STATUS_REFRESHING:
+                    statusInfo = "status_refreshing";
+                    break;
+                case STATUS_RELEASE_TO_REFRESH:
+                    statusInfo = "status_release_to_refresh";
+                    break;
+                case STATUS_SWIPING_TO_REFRESH:
+                    statusInfo = "status_swiping_to_refresh";
+                    break;
+                case STATUS_DEFAULT:
+                    statusInfo = "status_default";
+                    break;
+                case STATUS_SWIPING_TO_LOAD_MORE:
+                    statusInfo = "status_swiping_to_load_more";
+                    break;
+                case STATUS_RELEASE_TO_LOAD_MORE:
+                    statusInfo = "status_release_to_load_more";
+                    break;
+                case STATUS_LOADING_MORE:
+                    statusInfo = "status_loading_more";
+                    break;
+                case STATUS_LOAD_MORE_COMPLETE:
+                    statusInfo = "status_load_more_complete";
+                    break;
+                case STATUS_LOAD_MORE_RETURNING:
+                    statusInfo = "status_load_more_returning";
+                    break;
+                default:
+                    statusInfo = "status_illegal!";
+                    break;
+            }
+            return statusInfo;
+        }
+    }
+}
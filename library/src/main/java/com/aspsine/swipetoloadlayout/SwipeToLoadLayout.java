@@ -1,20 +1,38 @@
 package com.aspsine.swipetoloadlayout;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Paint;
+import android.os.Build;
 import android.support.v4.view.MotionEventCompat;
+import android.support.v4.view.NestedScrollingChild;
+import android.support.v4.view.NestedScrollingChildHelper;
+import android.support.v4.view.NestedScrollingParent;
+import android.support.v4.view.NestedScrollingParentHelper;
+import android.support.v4.view.VelocityTrackerCompat;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.widget.Scroller;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+
+import com.aspsine.swipetoloadlayout.SwipeStateEngine.STATUS;
+
+import java.util.ArrayList;
 
 /**
  * Created by Aspsine on 2015/8/13.
  */
-public class SwipeToLoadLayout extends ViewGroup {
+public class SwipeToLoadLayout extends ViewGroup implements NestedScrollingParent, NestedScrollingChild {
 
     private static final String TAG = SwipeToLoadLayout.class.getSimpleName();
 
@@ -31,9 +49,19 @@ public class SwipeToLoadLayout extends ViewGroup {
     private static final int DEFAULT_DEFAULT_TO_LOADING_MORE_SCROLLING_DURATION = 300;
 
     /**
-     * how hard to drag
+     * the shortest scrolling duration a release velocity can bring
+     */
+    private static final int MIN_VELOCITY_SCROLLING_DURATION = 80;
+
+    /**
+     * how long a release velocity keeps the header(footer) moving, in milliseconds
+     */
+    private static final int FLING_PROJECTION_TIME = 100;
+
+    /**
+     * the viscous fluid curve starts about this times faster than its average speed
      */
-    private static final float DEFAULT_DRAG_RATIO = 0.5f;
+    private static final float VISCOUS_FLUID_START_SPEED = 3f;
 
     private static final int INVALID_POINTER = -1;
 
@@ -41,10 +69,37 @@ public class SwipeToLoadLayout extends ViewGroup {
 
     private AutoScroller mAutoScroller;
 
+    /**
+     * the status machine, holds the status, offsets and the trigger offsets
+     */
+    private final SwipeStateEngine mEngine = new SwipeStateEngine(new EngineCallback());
+
     private OnRefreshListener mRefreshListener;
 
     private OnLoadMoreListener mLoadMoreListener;
 
+    private OnSwipeSettleListener mSwipeSettleListener;
+
+    /**
+     * the updates waiting for the header(footer) to settle, in order
+     */
+    private final ArrayList<Runnable> mPendingCommits = new ArrayList<Runnable>();
+
+    private final Runnable mCommitRunnable = new Runnable() {
+        @Override
+        public void run() {
+            // a new swipe started before this frame, wait for it to settle
+            if (STATUS.isStatusDefault(mEngine.getStatus())) {
+                flushCommits();
+            }
+        }
+    };
+
+    /**
+     * the header(footer) is moving by the finger or by the auto scroller
+     */
+    private boolean mSwipeMoving;
+
     private View mHeaderView;
 
     private View mTargetView;
@@ -59,75 +114,152 @@ public class SwipeToLoadLayout extends ViewGroup {
 
     private boolean mHasFooterView;
 
+    /**
+     * what the header(footer) was last told, when it is a {@link SwipeProgressTrigger}
+     */
+    private final ProgressDispatcher mHeaderProgress = new ProgressDispatcher();
+
+    private final ProgressDispatcher mFooterProgress = new ProgressDispatcher();
+
+    /**
+     * creates the header(footer) on the first pull when there is none
+     */
+    private TriggerViewProvider mTriggerViewProvider;
+
+    /**
+     * the provider the header(footer) came from and goes back to on reset,
+     * null when it isn't provided. It may not be {@link #mTriggerViewProvider} any more
+     */
+    private TriggerViewProvider mHeaderViewProvider;
+
+    private TriggerViewProvider mFooterViewProvider;
+
+    /**
+     * the last specs, to measure a provided header(footer) outside of a measure pass
+     */
+    private int mWidthMeasureSpec;
+
+    private int mHeightMeasureSpec;
+
+    /**
+     * the specs the header(footer) was last measured within, 0 when it has to be measured
+     */
+    private int mHeaderWidthMeasureSpec;
+
+    private int mHeaderHeightMeasureSpec;
+
+    private int mFooterWidthMeasureSpec;
+
+    private int mFooterHeightMeasureSpec;
+
     /**
      * the threshold of the touch event
      */
     private final int mTouchSlop;
 
+    private final int mMinimumFlingVelocity;
+
+    private final int mMaximumFlingVelocity;
+
     /**
-     * status of SwipeToLoadLayout
+     * obtained on the first touch and reused, so the gesture doesn't allocate
      */
-    private byte mStatus = STATUS.STATUS_DEFAULT;
+    private VelocityTracker mVelocityTracker;
 
     /**
-     * target view top offset
+     * the velocity of the nested fling that ended the nested scroll
      */
-    private int mHeaderOffset;
+    private float mNestedFlingVelocity;
 
     /**
-     * target offset
+     * the header(footer) is bouncing out by {@link #absorbFling(float)}
      */
-    private int mTargetOffset;
+    private boolean mAbsorbingFling;
 
     /**
-     * target view bottom offset
+     * the edge state of the target, valid until something scrolls.
+     * always valid when the target is an {@link EdgeObservable}
      */
-    private int mFooterOffset;
+    private boolean mEdgeCached;
+
+    private boolean mTargetCanRefresh;
+
+    private boolean mTargetCanLoadMore;
 
     /**
-     * last touch point.y
+     * the target pushes its edge state
      */
-    private float mLastY;
+    private boolean mEdgePushed;
+
+    private final EdgeListener mEdgeListener = new EdgeListener();
 
     /**
-     * action touch pointer's id
+     * load more when the target is within this many items of its end,
+     * negative means no prefetch
      */
-    private int mActivePointerId;
+    private int mLoadMorePrefetchDistance = -1;
 
     /**
-     * indicate whither is loading
+     * moves the header(footer) when it scrolls by itself
      */
-    private boolean mLoading;
+    private SwipeAnimator mSwipeAnimator = new DurationAnimator();
 
     /**
-     * <b>ATTRIBUTE:</b>
-     * the style default classic
+     * a load more started by prefetch, not finished by {@link #setLoadingMore(boolean)} yet
      */
-    private STYLE mStyle = STYLE.CLASSIC;
+    private boolean mPrefetchInFlight;
 
     /**
-     * <b>ATTRIBUTE:</b>
-     * offset to trigger refresh
+     * the prefetch is posted and {@link #mLoadMoreListener} isn't told yet
      */
-    private float mRefreshTriggerOffset;
+    private boolean mPrefetchPending;
 
     /**
-     * <b>ATTRIBUTE:</b>
-     * offset to trigger load more
+     * out of the scroll changed callback, which is part of the draw pass
+     */
+    private final Runnable mPrefetchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!mPrefetchPending) {
+                return;
+            }
+            mPrefetchPending = false;
+            if (mLoadMoreListener != null) {
+                flushCommits();
+                mLoadMoreListener.onLoadMore();
+            }
+        }
+    };
+
+    private final NestedScrollingParentHelper mNestedScrollingParentHelper;
+
+    private final NestedScrollingChildHelper mNestedScrollingChildHelper;
+
+    private final int[] mParentScrollConsumed = new int[2];
+
+    private final int[] mParentOffsetInWindow = new int[2];
+
+    /**
+     * a nested scrolling child is scrolling, the scrolls come from the nested scrolling
+     * callbacks instead of the touch events
      */
-    private float mLoadMoreTriggerOffset;
+    private boolean mNestedScrollInProgress;
 
     /**
-     * <b>ATTRIBUTE:</b>
-     * the max value of top offset
+     * last touch point.y
+     */
+    private float mLastY;
+
+    /**
+     * action touch pointer's id
      */
-    private float mRefreshFinalDragOffset;
+    private int mActivePointerId;
 
     /**
      * <b>ATTRIBUTE:</b>
-     * the max value of bottom offset
+     * the style default classic
      */
-    private float mLoadMoreFinalDragOffset;
+    private STYLE mStyle = STYLE.CLASSIC;
 
     /**
      * <b>ATTRIBUTE:</b>
@@ -169,6 +301,46 @@ public class SwipeToLoadLayout extends ViewGroup {
      */
     private int mDefaultToLoadingMoreScrollingDuration = DEFAULT_DEFAULT_TO_LOADING_MORE_SCROLLING_DURATION;
 
+    /**
+     * drive the auto scrolling by display frame callbacks on api 16+,
+     * otherwise by posting to the message queue
+     */
+    private boolean mFrameCallbackEnabled = true;
+
+    /**
+     * move the children by offsets while scrolling instead of laying them out again,
+     * a full layout only happens when the layout pass is requested
+     */
+    private boolean mOffsetChildrenEnabled = true;
+
+    /**
+     * draw the moving children from hardware layers while the header(footer) moves,
+     * so a frame of the swipe only composites them again
+     */
+    private boolean mHardwareLayersEnabled = true;
+
+    /**
+     * the children put on a hardware layer by the layout, none when settled
+     */
+    private final View[] mLayerViews = new View[3];
+
+    /**
+     * given to every layer change, the view creates a new paint for a null one
+     */
+    private final Paint mLayerPaint = new Paint();
+
+    /**
+     * traces the status machine, null in production so nothing is paid for it
+     */
+    private SwipeLogger mLogger;
+
+    private OnSwipeMetricsListener mMetricsListener;
+
+    /**
+     * metrics of current swipe cycle, only created when {@link #mMetricsListener} is set
+     */
+    private SwipeMetrics mMetrics;
+
 
     public SwipeToLoadLayout(Context context) {
         this(context, null);
@@ -218,18 +390,32 @@ public class SwipeToLoadLayout extends ViewGroup {
                 } else if (attr == R.styleable.SwipeToLoadLayout_default_to_loading_more_scrolling_duration) {
                     setDefaultToLoadingMoreScrollingDuration(a.getInt(attr, DEFAULT_DEFAULT_TO_LOADING_MORE_SCROLLING_DURATION));
 
+                } else if (attr == R.styleable.SwipeToLoadLayout_load_more_prefetch_distance) {
+                    setLoadMorePrefetchDistance(a.getInt(attr, -1));
+
+                } else if (attr == R.styleable.SwipeToLoadLayout_swipe_animator) {
+                    if (a.getInt(attr, 0) == 1) {
+                        setSwipeAnimator(new SpringSwipeAnimator());
+                    }
+
                 }
             }
         } finally {
             a.recycle();
         }
 
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        final ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        mNestedScrollingParentHelper = new NestedScrollingParentHelper(this);
+        mNestedScrollingChildHelper = new NestedScrollingChildHelper(this);
+        setNestedScrollingEnabled(true);
         mAutoScroller = new AutoScroller();
     }
 
     /**
-     * the style enum
+     * the style enum, the ordinals are the styles of {@link SwipePositions}
      */
     public static enum STYLE {
         CLASSIC, ABOVE, BLEW, SCALE;
@@ -256,7 +442,7 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @return
      */
     public boolean isRefreshing() {
-        return STATUS.isRefreshing(mStatus) && mLoading;
+        return STATUS.isRefreshing(mEngine.getStatus()) && mEngine.isLoading();
     }
 
     /**
@@ -265,7 +451,7 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @return
      */
     public boolean isLoadingMore() {
-        return STATUS.isLoadingMore(mStatus) && mLoading;
+        return STATUS.isLoadingMore(mEngine.getStatus()) && mEngine.isLoading();
     }
 
     /**
@@ -276,11 +462,14 @@ public class SwipeToLoadLayout extends ViewGroup {
      */
     public void setRefreshHeaderView(View view) {
         if (view instanceof SwipeRefreshTrigger) {
+            // a set header replaces the provided one
+            recycleHeaderView();
             if (mHeaderView != null && mHeaderView != view) {
                 removeView(mHeaderView);
             }
             if (mHeaderView != view) {
                 this.mHeaderView = view;
+                mHeaderWidthMeasureSpec = 0;
                 addView(view);
             }
         } else {
@@ -296,11 +485,13 @@ public class SwipeToLoadLayout extends ViewGroup {
      */
     public void setLoadMoreFooterView(View view) {
         if (view instanceof SwipeLoadMoreTrigger) {
+            recycleFooterView();
             if (mFooterView != null && mFooterView != view) {
                 removeView(mFooterView);
             }
             if (mFooterView != view) {
                 this.mFooterView = view;
+                mFooterWidthMeasureSpec = 0;
                 addView(mFooterView);
             }
         } else {
@@ -308,6 +499,22 @@ public class SwipeToLoadLayout extends ViewGroup {
         }
     }
 
+    /**
+     * Create the header(footer) on the first pull and give it back once the layout is reset,
+     * when none is set or inflated. Share a {@link TriggerViewPool} between the layouts of a window
+     * to reuse a few headers(footers) across all of them. A header(footer) in use goes back
+     * to the provider it came from once reset.
+     *
+     * @param provider
+     */
+    public void setTriggerViewProvider(TriggerViewProvider provider) {
+        if (STATUS.isStatusDefault(mEngine.getStatus())) {
+            recycleHeaderView();
+            recycleFooterView();
+        }
+        this.mTriggerViewProvider = provider;
+    }
+
     /**
      * set the style of the refresh header
      *
@@ -319,7 +526,7 @@ public class SwipeToLoadLayout extends ViewGroup {
     }
 
     /**
-     * set the value of {@link #mRefreshTriggerOffset}.
+     * set the offset to trigger refresh.
      * Default value is the refresh header view height {@link #mHeaderHeight}<p/>
      * If the offset you set is smaller than {@link #mHeaderHeight} or not set,
      * using {@link #mHeaderHeight} as default value
@@ -327,12 +534,12 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @param offset
      */
     public void setRefreshTriggerOffset(int offset) {
-        mRefreshTriggerOffset = offset;
-//        requestLayout();
+        // the header is only measured again when its size may change
+        mEngine.setRefreshTriggerOffset(Math.max(offset, mHeaderHeight));
     }
 
     /**
-     * set the value of {@link #mLoadMoreTriggerOffset}.
+     * set the offset to trigger load more.
      * Default value is the load more footer view height {@link #mFooterHeight}<p/>
      * If the offset you set is smaller than {@link #mFooterHeight} or not set,
      * using {@link #mFooterHeight} as default value
@@ -340,30 +547,29 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @param offset
      */
     public void setLoadMoreTriggerOffset(int offset) {
-        mLoadMoreTriggerOffset = offset;
-//        requestLayout();
+        mEngine.setLoadMoreTriggerOffset(Math.max(offset, mFooterHeight));
     }
 
     /**
      * Set the final offset you can swipe to refresh.<br/>
-     * If the offset you set is 0(default value) or smaller than {@link #mRefreshTriggerOffset}
+     * If the offset you set is 0(default value) or smaller than the refresh trigger offset
      * there no final offset
      *
      * @param offset
      */
     public void setRefreshFinalDragOffset(int offset) {
-        mRefreshFinalDragOffset = offset;
+        mEngine.setRefreshFinalDragOffset(offset);
     }
 
     /**
      * Set the final offset you can swipe to load more.<br/>
-     * If the offset you set is 0(default value) or smaller than {@link #mLoadMoreTriggerOffset},
+     * If the offset you set is 0(default value) or smaller than the load more trigger offset,
      * there no final offset
      *
      * @param offset
      */
     public void setLoadMoreFinalDragOffset(int offset) {
-        mLoadMoreFinalDragOffset = offset;
+        mEngine.setLoadMoreFinalDragOffset(offset);
     }
 
     /**
@@ -420,6 +626,75 @@ public class SwipeToLoadLayout extends ViewGroup {
         this.mDefaultToLoadingMoreScrollingDuration = duration;
     }
 
+    /**
+     * set {@link #mFrameCallbackEnabled}.
+     * Has no effect below api 16, where the message queue is always used
+     *
+     * @param enabled
+     */
+    public void setFrameCallbackEnabled(boolean enabled) {
+        this.mFrameCallbackEnabled = enabled;
+    }
+
+    /**
+     * set {@link #mOffsetChildrenEnabled}
+     *
+     * @param enabled
+     */
+    public void setOffsetChildrenEnabled(boolean enabled) {
+        this.mOffsetChildrenEnabled = enabled;
+    }
+
+    /**
+     * set {@link #mHardwareLayersEnabled}.
+     * Has no effect below api 11 or when the window isn't hardware accelerated
+     *
+     * @param enabled
+     */
+    public void setHardwareLayersEnabled(boolean enabled) {
+        this.mHardwareLayersEnabled = enabled;
+        if (!enabled) {
+            destroyLayers();
+        }
+    }
+
+    /**
+     * set a {@link SwipeLogger} to trace the status transitions and scrolling,
+     * e.g. {@link LogcatSwipeLogger} for debug builds. null to disable
+     *
+     * @param logger
+     */
+    public void setSwipeLogger(SwipeLogger logger) {
+        this.mLogger = logger;
+    }
+
+    /**
+     * set an {@link OnSwipeMetricsListener} to receive the frame and latency metrics
+     * of every swipe cycle. null to stop measuring
+     *
+     * @param listener
+     */
+    public void setOnSwipeMetricsListener(OnSwipeMetricsListener listener) {
+        this.mMetricsListener = listener;
+        if (listener == null) {
+            mMetrics = null;
+        } else if (mMetrics == null) {
+            mMetrics = new SwipeMetrics();
+            updateFramePeriod();
+        }
+    }
+
+    /**
+     * read again for every swipe cycle, the display may have changed its mode since
+     */
+    private void updateFramePeriod() {
+        final WindowManager windowManager = (WindowManager) getContext().getSystemService(Context.WINDOW_SERVICE);
+        final float refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        if (refreshRate > 0) {
+            mMetrics.setFramePeriodNanos((long) (1000000000L / refreshRate));
+        }
+    }
+
     /**
      * set an {@link OnRefreshListener} to listening refresh event
      *
@@ -438,38 +713,104 @@ public class SwipeToLoadLayout extends ViewGroup {
         this.mLoadMoreListener = listener;
     }
 
+    /**
+     * set the {@link SwipeAnimator} moving the header(footer) when it scrolls by itself,
+     * e.g. a {@link SpringSwipeAnimator}. Null restores the default one, which follows the durations
+     * along the same curve as {@link android.widget.Scroller}. Takes effect from the next move,
+     * one animator may be set on several layouts
+     *
+     * @param animator
+     */
+    public void setSwipeAnimator(SwipeAnimator animator) {
+        this.mSwipeAnimator = animator != null ? animator : new DurationAnimator();
+    }
+
+    /**
+     * Load more without the footer when the target is within distance items of its end,
+     * a {@link PrefetchAble} target tells its position, other targets prefetch when
+     * {@link LoadMoreAble#onCheckCanLoadMore()} is true. Only one load more is in flight,
+     * finish it by {@link #setLoadingMore(boolean)} false as usual.
+     *
+     * @param distance items, negative to disable
+     */
+    public void setLoadMorePrefetchDistance(int distance) {
+        this.mLoadMorePrefetchDistance = distance;
+    }
+
+    /**
+     * Apply an update, usually of the target's adapter, once the header(footer) is back and settled,
+     * so the rows aren't bound in the frames of the complete and return animations. Runs right away
+     * when settled. The updates of a refresh(load more) are applied in one batch on the frame after
+     * it settles, and anyway before the next refresh or load more is triggered. On the main thread.
+     *
+     * @param update
+     */
+    public void commitAfterSettle(Runnable update) {
+        if (STATUS.isStatusDefault(mEngine.getStatus()) && mPendingCommits.isEmpty()) {
+            update.run();
+        } else {
+            mPendingCommits.add(update);
+        }
+    }
+
+    /**
+     * set an {@link OnSwipeSettleListener} to know when the header(footer) moves and settles
+     *
+     * @param listener
+     */
+    public void setOnSwipeSettleListener(OnSwipeSettleListener listener) {
+        this.mSwipeSettleListener = listener;
+    }
+
+    /**
+     * @return whether the header(footer) is moving by the finger or by the auto scroll
+     */
+    public boolean isSwipeMoving() {
+        return mSwipeMoving;
+    }
+
     /**
      * auto refresh or cancel
      *
      * @param refreshing
      */
     public void setRefreshing(boolean refreshing) {
-        this.mLoading = refreshing;
+        setRefreshing(refreshing, 0);
+    }
+
+    /**
+     * refresh or cancel with the velocity the header is released at
+     *
+     * @param refreshing
+     * @param velocity   pixels per second, positive when moving down
+     */
+    private void setRefreshing(boolean refreshing, float velocity) {
+        mEngine.setRefreshLoading(refreshing);
         if (refreshing) {
             // can not perform refresh when it is refreshing or loading more
-            if (STATUS.isLoadingMore(mStatus)) {
+            if (STATUS.isLoadingMore(mEngine.getStatus()) || !ensureHeaderView()) {
                 return;
             }
             setStatus(STATUS.STATUS_REFRESHING);
             int duration;
-            if (mHeaderOffset > mRefreshTriggerOffset) {
+            if (mEngine.getHeaderOffset() > mEngine.getRefreshTriggerOffset()) {
                 duration = mReleaseToRefreshingScrollingDuration;
             } else {
                 duration = mDefaultToRefreshingScrollingDuration;
             }
-            mAutoScroller.autoScroll(mHeaderHeight - mHeaderOffset, duration);
+            final int distance = mHeaderHeight - mEngine.getHeaderOffset();
+            mAutoScroller.autoScroll(distance, velocity, duration);
         } else {
-            if (STATUS.isRefreshing(mStatus)) {
+            if (STATUS.isRefreshing(mEngine.getStatus())) {
+                if (mMetrics != null) {
+                    mMetrics.onComplete(System.nanoTime());
+                }
                 setStatus(STATUS.STATS_REFRESH_COMPLETE);
                 mRefreshCallback.complete();
-                postDelayed(new Runnable() {
-                    @Override
-                    public void run() {
-                        mAutoScroller.autoScroll(-mHeaderOffset, mRefreshingToDefaultScrollingDuration);
-                    }
-                }, 300);
-            } else if (STATUS.isSwipingToRefresh(mStatus)) {
-                mAutoScroller.autoScroll(-mHeaderOffset, mRefreshingToDefaultScrollingDuration);
+                postDelayed(mRefreshCompleteRunnable, 300);
+            } else if (STATUS.isSwipingToRefresh(mEngine.getStatus())) {
+                final int distance = -mEngine.getHeaderOffset();
+                mAutoScroller.autoScroll(distance, velocity, mRefreshingToDefaultScrollingDuration);
             }
         }
     }
@@ -480,46 +821,157 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @param loadingMore
      */
     public void setLoadingMore(boolean loadingMore) {
-        this.mLoading = loadingMore;
+        if (!loadingMore) {
+            // the load more is done, or cancelled before the prefetch was told
+            mPrefetchInFlight = false;
+            mPrefetchPending = false;
+        }
+        setLoadingMore(loadingMore, 0);
+    }
+
+    /**
+     * load more or cancel with the velocity the footer is released at
+     *
+     * @param loadingMore
+     * @param velocity    pixels per second, positive when moving down
+     */
+    private void setLoadingMore(boolean loadingMore, float velocity) {
+        mEngine.setLoadMoreLoading(loadingMore);
         if (loadingMore) {
             // can not perform load more when it is refreshing or loading more
-            if (STATUS.isRefreshing(mStatus)) {
+            if (STATUS.isRefreshing(mEngine.getStatus()) || !ensureFooterView()) {
                 return;
             }
             setStatus(STATUS.STATUS_LOADING_MORE);
             int duration;
-            if (-mFooterOffset > mLoadMoreTriggerOffset) {
+            if (-mEngine.getFooterOffset() > mEngine.getLoadMoreTriggerOffset()) {
                 duration = mReleaseToLoadingMoreScrollingDuration;
             } else {
                 duration = mDefaultToLoadingMoreScrollingDuration;
             }
-            mAutoScroller.autoScroll(-mFooterOffset - mFooterHeight, duration);
+            final int distance = -mEngine.getFooterOffset() - mFooterHeight;
+            mAutoScroller.autoScroll(distance, velocity, duration);
         } else {
-            if (STATUS.isLoadingMore(mStatus)) {
+            if (STATUS.isLoadingMore(mEngine.getStatus())) {
+                if (mMetrics != null) {
+                    mMetrics.onComplete(System.nanoTime());
+                }
                 setStatus(STATUS.STATUS_LOAD_MORE_COMPLETE);
                 mLoadMoreCallback.complete();
-                postDelayed(new Runnable() {
-                    @Override
-                    public void run() {
-                        mAutoScroller.autoScroll(-mFooterOffset, mLoadingMoreToDefaultScrollingDuration);
-                    }
-                }, 300);
-            } else if (STATUS.isSwipingToLoadMore(mStatus)) {
-                mAutoScroller.autoScroll(-mFooterOffset, mLoadingMoreToDefaultScrollingDuration);
+                postDelayed(mLoadMoreCompleteRunnable, 300);
+            } else if (STATUS.isSwipingToLoadMore(mEngine.getStatus())) {
+                final int distance = -mEngine.getFooterOffset();
+                mAutoScroller.autoScroll(distance, velocity, mLoadingMoreToDefaultScrollingDuration);
             }
         }
     }
 
+    /**
+     * Keep a fast release moving at the finger speed instead of the fixed duration.
+     * The viscous fluid curve starts faster than its average speed, so the duration
+     * is stretched by {@link #VISCOUS_FLUID_START_SPEED}.
+     *
+     * @param distance        the auto scroll distance
+     * @param velocity        the release velocity, pixels per second
+     * @param defaultDuration the duration of a slow release
+     * @return
+     */
+    private int getVelocityScrollingDuration(int distance, float velocity, int defaultDuration) {
+        if (distance == 0 || Math.abs(velocity) < mMinimumFlingVelocity
+                || (distance > 0) != (velocity > 0)) {
+            // slow or against the scrolling direction
+            return defaultDuration;
+        }
+        final int duration = (int) (1000 * VISCOUS_FLUID_START_SPEED * distance / velocity);
+        return Math.max(MIN_VELOCITY_SCROLLING_DURATION, Math.min(duration, defaultDuration));
+    }
+
+    /**
+     * the target offset the header(footer) would reach if it kept moving
+     * at the release velocity for {@link #FLING_PROJECTION_TIME}
+     *
+     * @param velocity pixels per second of the finger, positive when moving down
+     * @return
+     */
+    private float getProjectedTargetOffset(float velocity) {
+        return mEngine.getTargetOffset()
+                + velocity * SwipeStateEngine.DEFAULT_DRAG_RATIO * FLING_PROJECTION_TIME / 1000;
+    }
+
+    /**
+     * Bounce the header(footer) out by the velocity of a fling the target can't take
+     * any more, e.g. the list reached the top or the bottom in the middle of a fling.
+     * A fling fast enough to reach the trigger offset refreshes(loads more) as if it was released there.
+     *
+     * @param velocityY pixels per second, positive when the content moves down (towards the header)
+     * @return whether the fling is absorbed
+     */
+    public boolean absorbFling(float velocityY) {
+        if (!isEnabled() || !STATUS.isStatusDefault(mEngine.getStatus())
+                || Math.abs(velocityY) < mMinimumFlingVelocity) {
+            return false;
+        }
+        invalidateEdgeCache();
+        final float projected = getProjectedTargetOffset(velocityY);
+        final int distance;
+        final int duration;
+        if (velocityY > 0 && onCheckCanRefresh()) {
+            mRefreshCallback.onPrepare();
+            setStatus(STATUS.STATUS_SWIPING_TO_REFRESH);
+            distance = (int) Math.min(projected, mEngine.getRefreshTriggerOffset());
+            duration = mReleaseToRefreshingScrollingDuration;
+        } else if (velocityY < 0 && onCheckCanLoadMore()) {
+            mLoadMoreCallback.onPrepare();
+            setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE);
+            distance = (int) Math.max(projected, -mEngine.getLoadMoreTriggerOffset());
+            duration = mReleaseToLoadingMoreScrollingDuration;
+        } else {
+            return false;
+        }
+        mAbsorbingFling = true;
+        mAutoScroller.autoScroll(distance, velocityY, duration);
+        return true;
+    }
+
+    /**
+     * scroll back to default after the refresh complete delay
+     */
+    private final Runnable mRefreshCompleteRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mAutoScroller.autoScroll(-mEngine.getHeaderOffset(), 0, mRefreshingToDefaultScrollingDuration);
+        }
+    };
+
+    /**
+     * scroll back to default after the load more complete delay
+     */
+    private final Runnable mLoadMoreCompleteRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mAutoScroller.autoScroll(-mEngine.getFooterOffset(), 0, mLoadingMoreToDefaultScrollingDuration);
+        }
+    };
+
     /**
      * invoke when {@link AutoScroller#finish()}
      *
      * @param autoScrollAbort
      */
     private void autoScrollFinished(boolean autoScrollAbort) {
-        if (mLoading) {
-            if (STATUS.isRefreshing(mStatus) && !autoScrollAbort) {
+        if (mAbsorbingFling) {
+            mAbsorbingFling = false;
+            // the fling is spent, act as if the header(footer) was released here.
+            // an abort means a finger caught it, which releases it later
+            if (!autoScrollAbort) {
+                onActivePointerUp(0);
+            }
+            return;
+        }
+        if (mEngine.isLoading()) {
+            if (STATUS.isRefreshing(mEngine.getStatus()) && !autoScrollAbort) {
                 mRefreshCallback.onRefresh();
-            } else if (STATUS.isLoadingMore(mStatus) && !autoScrollAbort) {
+            } else if (STATUS.isLoadingMore(mEngine.getStatus()) && !autoScrollAbort) {
                 mLoadMoreCallback.onLoadMore();
             }
         }
@@ -528,19 +980,24 @@ public class SwipeToLoadLayout extends ViewGroup {
     RefreshCallback mRefreshCallback = new RefreshCallback() {
         @Override
         public void onPrepare() {
-            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 mHeaderView.setVisibility(VISIBLE);
+                mHeaderProgress.reset();
                 ((SwipeTrigger) mHeaderView).onPrepare();
             }
         }
 
         @Override
         public void onSwipe(int y) {
-            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isRefreshStatus(mStatus)) {
+            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isRefreshStatus(mEngine.getStatus())) {
                 if (mHeaderView.getVisibility() == GONE || mHeaderView.getVisibility() == INVISIBLE) {
                     mHeaderView.setVisibility(VISIBLE);
                 }
-                ((SwipeTrigger) mHeaderView).onSwipe(y);
+                if (mHeaderView instanceof SwipeProgressTrigger) {
+                    mHeaderProgress.dispatch((SwipeProgressTrigger) mHeaderView, y, mEngine.getRefreshTriggerOffset(), isSwiping());
+                } else {
+                    ((SwipeTrigger) mHeaderView).onSwipe(y);
+                }
             }
         }
 
@@ -553,10 +1010,14 @@ public class SwipeToLoadLayout extends ViewGroup {
 
         @Override
         public void onRefresh() {
-            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isRefreshing(mStatus) && mLoading) {
+            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isRefreshing(mEngine.getStatus()) && mEngine.isLoading()) {
                 ((SwipeRefreshTrigger) mHeaderView).onRefresh();
 
+                if (mMetrics != null) {
+                    mMetrics.onTrigger(System.nanoTime());
+                }
                 if (mRefreshListener != null) {
+                    flushCommits();
                     mRefreshListener.onRefresh();
                 }
             }
@@ -564,9 +1025,13 @@ public class SwipeToLoadLayout extends ViewGroup {
 
         @Override
         public void onReset() {
-            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mHeaderView != null && mHeaderView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 ((SwipeTrigger) mHeaderView).onReset();
                 mHeaderView.setVisibility(GONE);
+                mHeaderProgress.reset();
+            }
+            if (STATUS.isStatusDefault(mEngine.getStatus())) {
+                recycleHeaderView();
             }
         }
     };
@@ -575,42 +1040,42 @@ public class SwipeToLoadLayout extends ViewGroup {
 
         @Override
         public void onPrepare() {
-            if (mTargetView != null && mTargetView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mTargetView != null && mTargetView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 ((SwipeTrigger) mTargetView).onPrepare();
             }
         }
 
         @Override
         public void onSwipe(int y) {
-            if (mTargetView != null && mTargetView instanceof SwipeTrigger && !STATUS.isStatusDefault(mStatus)) {
+            if (mTargetView != null && mTargetView instanceof SwipeTrigger && !STATUS.isStatusDefault(mEngine.getStatus())) {
                 ((SwipeTrigger) mTargetView).onSwipe(y);
             }
         }
 
         @Override
         public void onRefresh() {
-            if (mTargetView != null && mTargetView instanceof SwipeRefreshTrigger && STATUS.isRefreshing(mStatus) && mLoading) {
+            if (mTargetView != null && mTargetView instanceof SwipeRefreshTrigger && STATUS.isRefreshing(mEngine.getStatus()) && mEngine.isLoading()) {
                 ((SwipeRefreshTrigger) mTargetView).onRefresh();
             }
         }
 
         @Override
         public void onLoadMore() {
-            if (mTargetView != null && mTargetView instanceof SwipeLoadMoreTrigger && STATUS.isLoadingMore(mStatus) && mLoading) {
+            if (mTargetView != null && mTargetView instanceof SwipeLoadMoreTrigger && STATUS.isLoadingMore(mEngine.getStatus()) && mEngine.isLoading()) {
                 ((SwipeLoadMoreTrigger) mTargetView).onLoadMore();
             }
         }
 
         @Override
         public void complete() {
-            if (mTargetView != null && mTargetView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mTargetView != null && mTargetView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 ((SwipeTrigger) mTargetView).complete();
             }
         }
 
         @Override
         public void onReset() {
-            if (mTargetView != null && mTargetView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mTargetView != null && mTargetView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 ((SwipeTrigger) mTargetView).onReset();
             }
         }
@@ -620,25 +1085,35 @@ public class SwipeToLoadLayout extends ViewGroup {
 
         @Override
         public void onPrepare() {
-            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 mFooterView.setVisibility(VISIBLE);
+                mFooterProgress.reset();
                 ((SwipeTrigger) mFooterView).onPrepare();
             }
         }
 
         @Override
         public void onSwipe(int y) {
-            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isLoadMoreStatus(mStatus)) {
-                ((SwipeTrigger) mFooterView).onSwipe(y);
+            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isLoadMoreStatus(mEngine.getStatus())) {
+                if (mFooterView instanceof SwipeProgressTrigger) {
+                    mFooterProgress.dispatch((SwipeProgressTrigger) mFooterView, -y, mEngine.getLoadMoreTriggerOffset(), isSwiping());
+                } else {
+                    ((SwipeTrigger) mFooterView).onSwipe(y);
+                }
             }
         }
 
         @Override
         public void onLoadMore() {
-            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isLoadingMore(mStatus) && mLoading) {
+            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isLoadingMore(mEngine.getStatus()) && mEngine.isLoading()) {
                 ((SwipeLoadMoreTrigger) mFooterView).onLoadMore();
 
-                if (mLoadMoreListener != null) {
+                if (mMetrics != null) {
+                    mMetrics.onTrigger(System.nanoTime());
+                }
+                // the prefetch is already loading, the footer waits for it
+                if (mLoadMoreListener != null && !mPrefetchInFlight) {
+                    flushCommits();
                     mLoadMoreListener.onLoadMore();
                 }
             }
@@ -653,9 +1128,13 @@ public class SwipeToLoadLayout extends ViewGroup {
 
         @Override
         public void onReset() {
-            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isStatusDefault(mStatus)) {
+            if (mFooterView != null && mFooterView instanceof SwipeTrigger && STATUS.isStatusDefault(mEngine.getStatus())) {
                 ((SwipeTrigger) mFooterView).onReset();
                 mFooterView.setVisibility(GONE);
+                mFooterProgress.reset();
+            }
+            if (STATUS.isStatusDefault(mEngine.getStatus())) {
+                recycleFooterView();
             }
         }
     };
@@ -712,7 +1191,8 @@ public class SwipeToLoadLayout extends ViewGroup {
                 View child = getChildAt(i);
                 if (child instanceof SwipeRefreshTrigger) {
                     mHeaderView = child;
-                } else if (child instanceof RefreshAble || child instanceof LoadMoreAble) {
+                } else if (child instanceof RefreshAble || child instanceof LoadMoreAble
+                        || child instanceof EdgeObservable || child instanceof NestedScrollingChild) {
                     mTargetView = child;
                 } else if (child instanceof SwipeLoadMoreTrigger) {
                     mFooterView = child;
@@ -724,13 +1204,17 @@ public class SwipeToLoadLayout extends ViewGroup {
                 throw new RuntimeException(new ClassNotFoundException(
                         "SwipeToLoadLayout must contains three children at most: " +
                                 "the first must be the implement SwipeRefreshTrigger" +
-                                "the second must be the implement of RefreshAble or LoadMoreAble" +
+                                "the second must be the implement of RefreshAble, LoadMoreAble, EdgeObservable or NestedScrollingChild" +
                                 "the third must be the implement of SwipeLoadMoreTrigger"));
             }
         } else {
             // more than three children: unsupported!
             throw new IllegalStateException("Children num must equal or less than 3");
         }
+        if (mTargetView instanceof EdgeObservable) {
+            mEdgePushed = true;
+            ((EdgeObservable) mTargetView).setOnEdgeChangedListener(mEdgeListener);
+        }
         if (mHeaderView != null){
             mHeaderView.setVisibility(GONE);
         }
@@ -739,18 +1223,41 @@ public class SwipeToLoadLayout extends ViewGroup {
         }
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnScrollChangedListener(mEdgeListener);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnScrollChangedListener(mEdgeListener);
+        // nothing will settle any more, don't lose the updates
+        removeCallbacks(mCommitRunnable);
+        flushCommits();
+        if (mPrefetchPending) {
+            // never told, it may prefetch again once attached
+            removeCallbacks(mPrefetchRunnable);
+            mPrefetchPending = false;
+            mPrefetchInFlight = false;
+        }
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+            // the gesture is lost, the next one starts with a down
+            mActivePointerId = INVALID_POINTER;
+        }
+        super.onDetachedFromWindow();
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        mWidthMeasureSpec = widthMeasureSpec;
+        mHeightMeasureSpec = heightMeasureSpec;
         // header
-        if (mHeaderView != null) {
-            final View headerView = mHeaderView;
-            measureChildWithMargins(headerView, widthMeasureSpec, 0, heightMeasureSpec, 0);
-            MarginLayoutParams lp = ((MarginLayoutParams) headerView.getLayoutParams());
-            mHeaderHeight = headerView.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
-            if (mRefreshTriggerOffset < mHeaderHeight) {
-                mRefreshTriggerOffset = mHeaderHeight;
-            }
+        if (mHeaderView != null && !isMeasureValid(mHeaderView, mHeaderWidthMeasureSpec, mHeaderHeightMeasureSpec)) {
+            measureHeaderView();
         }
         // target
         if (mTargetView != null) {
@@ -758,20 +1265,159 @@ public class SwipeToLoadLayout extends ViewGroup {
             measureChildWithMargins(targetView, widthMeasureSpec, 0, heightMeasureSpec, 0);
         }
         // footer
-        if (mFooterView != null) {
-            final View footerView = mFooterView;
-            measureChildWithMargins(footerView, widthMeasureSpec, 0, heightMeasureSpec, 0);
-            MarginLayoutParams lp = ((MarginLayoutParams) footerView.getLayoutParams());
-            mFooterHeight = footerView.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
-            if (mLoadMoreTriggerOffset <= mFooterHeight) {
-                mLoadMoreTriggerOffset = mFooterHeight;
-            }
+        if (mFooterView != null && !isMeasureValid(mFooterView, mFooterWidthMeasureSpec, mFooterHeightMeasureSpec)) {
+            measureFooterView();
         }
     }
 
-    @Override
-    protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        layoutChildren();
+    /**
+     * The header(footer) keeps its size if its content didn't change and it is given the same width.
+     * A height that doesn't fill the space given before won't change when the space changes,
+     * e.g. when a toolbar animates during a refresh.
+     * The target is always measured, it fills the layout and only skips a measure when the specs
+     * are the same, which {@link View#measure(int, int)} already checks.
+     *
+     * @param child
+     * @param lastWidthMeasureSpec  the width spec of this layout the child was measured within
+     * @param lastHeightMeasureSpec the height spec of this layout the child was measured within
+     * @return whether the last measure of the child still holds
+     */
+    private boolean isMeasureValid(View child, int lastWidthMeasureSpec, int lastHeightMeasureSpec) {
+        if (lastWidthMeasureSpec == 0 || child.isLayoutRequested() || lastWidthMeasureSpec != mWidthMeasureSpec) {
+            return false;
+        }
+        if (lastHeightMeasureSpec == mHeightMeasureSpec) {
+            return true;
+        }
+        final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+        if (lp.height != LayoutParams.WRAP_CONTENT
+                || MeasureSpec.getMode(lastHeightMeasureSpec) == MeasureSpec.UNSPECIFIED
+                || MeasureSpec.getMode(mHeightMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+            return false;
+        }
+        final int height = child.getMeasuredHeight();
+        return height < getAvailableHeight(lp, lastHeightMeasureSpec)
+                && height <= getAvailableHeight(lp, mHeightMeasureSpec);
+    }
+
+    private int getAvailableHeight(MarginLayoutParams lp, int heightMeasureSpec) {
+        return MeasureSpec.getSize(heightMeasureSpec) - getPaddingTop() - getPaddingBottom()
+                - lp.topMargin - lp.bottomMargin;
+    }
+
+    private void measureHeaderView() {
+        final View headerView = mHeaderView;
+        measureChildWithMargins(headerView, mWidthMeasureSpec, 0, mHeightMeasureSpec, 0);
+        mHeaderWidthMeasureSpec = mWidthMeasureSpec;
+        mHeaderHeightMeasureSpec = mHeightMeasureSpec;
+        MarginLayoutParams lp = ((MarginLayoutParams) headerView.getLayoutParams());
+        mHeaderHeight = headerView.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+        if (mEngine.getRefreshTriggerOffset() < mHeaderHeight) {
+            mEngine.setRefreshTriggerOffset(mHeaderHeight);
+        }
+    }
+
+    private void measureFooterView() {
+        final View footerView = mFooterView;
+        measureChildWithMargins(footerView, mWidthMeasureSpec, 0, mHeightMeasureSpec, 0);
+        mFooterWidthMeasureSpec = mWidthMeasureSpec;
+        mFooterHeightMeasureSpec = mHeightMeasureSpec;
+        MarginLayoutParams lp = ((MarginLayoutParams) footerView.getLayoutParams());
+        mFooterHeight = footerView.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+        if (mEngine.getLoadMoreTriggerOffset() <= mFooterHeight) {
+            mEngine.setLoadMoreTriggerOffset(mFooterHeight);
+        }
+    }
+
+    /**
+     * Take a header from {@link #mTriggerViewProvider} if there is none, measured and laid out
+     * right away, the pull can't wait for the next layout pass to know the trigger offset.
+     *
+     * @return whether there is a header to pull
+     */
+    private boolean ensureHeaderView() {
+        if (mHeaderView != null) {
+            return mHasHeaderView;
+        }
+        if (mTriggerViewProvider == null || mTargetView == null) {
+            return false;
+        }
+        final View view = mTriggerViewProvider.obtainRefreshHeaderView(this);
+        if (!(view instanceof SwipeRefreshTrigger)) {
+            Log.e(TAG, "Refresh header view must be an implement of SwipeRefreshTrigger");
+            return false;
+        }
+        view.setVisibility(GONE);
+        mHeaderView = view;
+        mHeaderViewProvider = mTriggerViewProvider;
+        addView(view);
+        measureHeaderView();
+        layoutChildren();
+        bringChildrenToFront();
+        mHasHeaderView = true;
+        return true;
+    }
+
+    /**
+     * @return whether there is a footer to pull
+     * @see #ensureHeaderView()
+     */
+    private boolean ensureFooterView() {
+        if (mFooterView != null) {
+            return mHasFooterView;
+        }
+        if (mTriggerViewProvider == null || mTargetView == null) {
+            return false;
+        }
+        final View view = mTriggerViewProvider.obtainLoadMoreFooterView(this);
+        if (!(view instanceof SwipeLoadMoreTrigger)) {
+            Log.e(TAG, "Load more footer view must be an implement of SwipeLoadTrigger");
+            return false;
+        }
+        view.setVisibility(GONE);
+        mFooterView = view;
+        mFooterViewProvider = mTriggerViewProvider;
+        addView(view);
+        measureFooterView();
+        layoutChildren();
+        bringChildrenToFront();
+        mHasFooterView = true;
+        return true;
+    }
+
+    /**
+     * give a provided header back once it is reset
+     */
+    private void recycleHeaderView() {
+        if (mHeaderViewProvider == null) {
+            return;
+        }
+        final View view = mHeaderView;
+        final TriggerViewProvider provider = mHeaderViewProvider;
+        mHeaderViewProvider = null;
+        mHasHeaderView = false;
+        mHeaderView = null;
+        removeView(view);
+        provider.recycleRefreshHeaderView(view);
+    }
+
+    private void recycleFooterView() {
+        if (mFooterViewProvider == null) {
+            return;
+        }
+        final View view = mFooterView;
+        final TriggerViewProvider provider = mFooterViewProvider;
+        mFooterViewProvider = null;
+        mHasFooterView = false;
+        mFooterView = null;
+        removeView(view);
+        provider.recycleLoadMoreFooterView(view);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        layoutChildren();
+        bringChildrenToFront();
 
         mHasHeaderView = (mHeaderView != null);
         mHasFooterView = (mFooterView != null);
@@ -781,14 +1427,6 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @see #onLayout(boolean, int, int, int, int)
      */
     private void layoutChildren() {
-        final int width = getMeasuredWidth();
-        final int height = getMeasuredHeight();
-
-        final int paddingLeft = getPaddingLeft();
-        final int paddingTop = getPaddingTop();
-        final int paddingRight = getPaddingRight();
-        final int paddingBottom = getPaddingBottom();
-
         if (mTargetView == null) {
             return;
         }
@@ -797,65 +1435,19 @@ public class SwipeToLoadLayout extends ViewGroup {
         if (mHeaderView != null) {
             final View headerView = mHeaderView;
             MarginLayoutParams lp = (MarginLayoutParams) headerView.getLayoutParams();
-            final int headerLeft = paddingLeft + lp.leftMargin;
-            final int headerTop;
-            switch (mStyle) {
-                case CLASSIC:
-                    // classic
-                    headerTop = paddingTop + lp.topMargin - mHeaderHeight + mHeaderOffset;
-                    break;
-                case ABOVE:
-                    // classic
-                    headerTop = paddingTop + lp.topMargin - mHeaderHeight + mHeaderOffset;
-                    break;
-                case BLEW:
-                    // blew
-                    headerTop = paddingTop + lp.topMargin;
-                    break;
-                case SCALE:
-                    // scale
-                    headerTop = paddingTop + lp.topMargin - mHeaderHeight / 2 + mHeaderOffset / 2;
-                    break;
-                default:
-                    // classic
-                    headerTop = paddingTop + lp.topMargin - mHeaderHeight + mHeaderOffset;
-                    break;
-            }
+            final int headerLeft = getPaddingLeft() + lp.leftMargin;
+            final int headerTop = getHeaderTop();
             final int headerRight = headerLeft + headerView.getMeasuredWidth();
             final int headerBottom = headerTop + headerView.getMeasuredHeight();
             headerView.layout(headerLeft, headerTop, headerRight, headerBottom);
         }
 
-
         // layout target
         if (mTargetView != null) {
             final View targetView = mTargetView;
             MarginLayoutParams lp = (MarginLayoutParams) targetView.getLayoutParams();
-            final int targetLeft = paddingLeft + lp.leftMargin;
-            final int targetTop;
-
-            switch (mStyle) {
-                case CLASSIC:
-                    // classic
-                    targetTop = paddingTop + lp.topMargin + mTargetOffset;
-                    break;
-                case ABOVE:
-                    // above
-                    targetTop = paddingTop + lp.topMargin;
-                    break;
-                case BLEW:
-                    // classic
-                    targetTop = paddingTop + lp.topMargin + mTargetOffset;
-                    break;
-                case SCALE:
-                    // classic
-                    targetTop = paddingTop + lp.topMargin + mTargetOffset;
-                    break;
-                default:
-                    // classic
-                    targetTop = paddingTop + lp.topMargin + mTargetOffset;
-                    break;
-            }
+            final int targetLeft = getPaddingLeft() + lp.leftMargin;
+            final int targetTop = getTargetTop();
             final int targetRight = targetLeft + targetView.getMeasuredWidth();
             final int targetBottom = targetTop + targetView.getMeasuredHeight();
             targetView.layout(targetLeft, targetTop, targetRight, targetBottom);
@@ -865,42 +1457,106 @@ public class SwipeToLoadLayout extends ViewGroup {
         if (mFooterView != null) {
             final View footerView = mFooterView;
             MarginLayoutParams lp = (MarginLayoutParams) footerView.getLayoutParams();
-            final int footerLeft = paddingLeft + lp.leftMargin;
-            final int footerBottom;
-            switch (mStyle) {
-                case CLASSIC:
-                    // classic
-                    footerBottom = height - paddingBottom - lp.bottomMargin + mFooterHeight + mFooterOffset;
-                    break;
-                case ABOVE:
-                    // classic
-                    footerBottom = height - paddingBottom - lp.bottomMargin + mFooterHeight + mFooterOffset;
-                    break;
-                case BLEW:
-                    // blew
-                    footerBottom = height - paddingBottom - lp.bottomMargin;
-                    break;
-                case SCALE:
-                    // scale
-                    footerBottom = height - paddingBottom - lp.bottomMargin + mFooterHeight / 2 + mFooterOffset / 2;
-                    break;
-                default:
-                    // classic
-                    footerBottom = height - paddingBottom - lp.bottomMargin + mFooterHeight + mFooterOffset;
-                    break;
-            }
+            final int footerLeft = getPaddingLeft() + lp.leftMargin;
+            final int footerBottom = getFooterBottom();
             final int footerTop = footerBottom - footerView.getMeasuredHeight();
             final int footerRight = footerLeft + footerView.getMeasuredWidth();
 
             footerView.layout(footerLeft, footerTop, footerRight, footerBottom);
         }
+    }
+
+    /**
+     * Move the children to the current offsets without a layout pass.
+     * Sizes only change on measure, so the scrolling only has to shift the children.
+     *
+     * @see #layoutChildren()
+     */
+    private void offsetChildren() {
+        if (mTargetView == null) {
+            return;
+        }
+        if (mHeaderView != null) {
+            offsetChildTopTo(mHeaderView, getHeaderTop());
+        }
+        offsetChildTopTo(mTargetView, getTargetTop());
+        if (mFooterView != null) {
+            offsetChildTopTo(mFooterView, getFooterBottom() - mFooterView.getMeasuredHeight());
+        }
+    }
+
+    private static void offsetChildTopTo(View child, int top) {
+        final int offset = top - child.getTop();
+        if (offset != 0) {
+            child.offsetTopAndBottom(offset);
+        }
+    }
+
+    /**
+     * the header's top of current style and the header offset
+     *
+     * @return
+     */
+    private int getHeaderTop() {
+        MarginLayoutParams lp = (MarginLayoutParams) mHeaderView.getLayoutParams();
+        return SwipePositions.getHeaderTop(mStyle.ordinal(), getPaddingTop() + lp.topMargin,
+                mHeaderHeight, mEngine.getHeaderOffset());
+    }
+
+    /**
+     * the target's top of current style and the target offset
+     *
+     * @return
+     */
+    private int getTargetTop() {
+        MarginLayoutParams lp = (MarginLayoutParams) mTargetView.getLayoutParams();
+        return SwipePositions.getTargetTop(mStyle.ordinal(), getPaddingTop() + lp.topMargin,
+                mEngine.getTargetOffset());
+    }
+
+    /**
+     * the footer's bottom of current style and the footer offset
+     *
+     * @return
+     */
+    private int getFooterBottom() {
+        MarginLayoutParams lp = (MarginLayoutParams) mFooterView.getLayoutParams();
+        return SwipePositions.getFooterBottom(mStyle.ordinal(), getMeasuredHeight() - getPaddingBottom() - lp.bottomMargin,
+                mFooterHeight, mEngine.getFooterOffset());
+    }
 
+    /**
+     * Put the children in the drawing order of current style.
+     * Only done when the order is wrong, bringing a child to front requests a new layout.
+     */
+    private void bringChildrenToFront() {
+        if (mTargetView == null) {
+            return;
+        }
+        final int target = indexOfChild(mTargetView);
+        final int header = mHeaderView != null ? indexOfChild(mHeaderView) : -1;
+        final int footer = mFooterView != null ? indexOfChild(mFooterView) : -1;
         if (mStyle == STYLE.CLASSIC
                 || mStyle == STYLE.ABOVE) {
-            mHeaderView.bringToFront();
-            mFooterView.bringToFront();
+            // the target below both the header and the footer
+            if ((header >= 0 && header < target) || (footer >= 0 && footer < target)) {
+                bringChildToFrontIfNeeded(mHeaderView);
+                bringChildToFrontIfNeeded(mFooterView);
+            }
         } else if (mStyle == STYLE.BLEW || mStyle == STYLE.SCALE) {
-            mTargetView.bringToFront();
+            // the target above both
+            if (header > target || footer > target) {
+                mTargetView.bringToFront();
+            }
+        }
+    }
+
+    private void bringChildToFrontIfNeeded(View child) {
+        if (child == null) {
+            return;
+        }
+        if (indexOfChild(child) != getChildCount() - 1) {
+            child.bringToFront();
         }
     }
 
@@ -910,11 +1566,13 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @return
      */
     private boolean onCheckCanRefresh() {
-        boolean canRefresh = false;
-        if (mTargetView instanceof RefreshAble) {
-            canRefresh = ((RefreshAble) mTargetView).onCheckCanRefresh();
+        if (mNestedScrollInProgress) {
+            // the nested scrolling child has just reached the top, the cache may be older than that
+            invalidateEdgeCache();
         }
-        return canRefresh && mHasHeaderView && mRefreshTriggerOffset > 0;
+        ensureEdgeCache();
+        final boolean canRefresh = mTargetCanRefresh;
+        return canRefresh && ensureHeaderView() && mEngine.getRefreshTriggerOffset() > 0;
     }
 
     /**
@@ -923,11 +1581,61 @@ public class SwipeToLoadLayout extends ViewGroup {
      * @return
      */
     private boolean onCheckCanLoadMore() {
-        boolean canLoadMore = false;
-        if (mTargetView instanceof LoadMoreAble) {
-            canLoadMore = ((LoadMoreAble) mTargetView).onCheckCanLoadMore();
+        if (mNestedScrollInProgress) {
+            // the nested scrolling child has just reached the bottom, the cache may be older than that
+            invalidateEdgeCache();
+        }
+        ensureEdgeCache();
+        final boolean canLoadMore = mTargetCanLoadMore;
+        return canLoadMore && ensureFooterView() && mEngine.getLoadMoreTriggerOffset() > 0;
+    }
+
+    /**
+     * poll the target at most once until something scrolls
+     */
+    private void ensureEdgeCache() {
+        if (mEdgeCached) {
+            return;
+        }
+        mTargetCanRefresh = mTargetView instanceof RefreshAble
+                && ((RefreshAble) mTargetView).onCheckCanRefresh();
+        mTargetCanLoadMore = mTargetView instanceof LoadMoreAble
+                && ((LoadMoreAble) mTargetView).onCheckCanLoadMore();
+        mEdgeCached = true;
+    }
+
+    /**
+     * load more if the target scrolled near its end
+     */
+    private void checkPrefetch() {
+        if (mLoadMorePrefetchDistance < 0 || mPrefetchInFlight || mLoadMoreListener == null
+                || !isEnabled() || !STATUS.isStatusDefault(mEngine.getStatus())) {
+            return;
+        }
+        final boolean nearEnd;
+        if (mTargetView instanceof PrefetchAble) {
+            final PrefetchAble target = (PrefetchAble) mTargetView;
+            final int count = target.getCount();
+            nearEnd = target.isLoadMoreAble() && count > 0
+                    && target.getLastVisiblePosition() >= count - 1 - mLoadMorePrefetchDistance;
+        } else {
+            ensureEdgeCache();
+            nearEnd = mTargetCanLoadMore;
+        }
+        if (nearEnd) {
+            mPrefetchInFlight = true;
+            mPrefetchPending = true;
+            post(mPrefetchRunnable);
+        }
+    }
+
+    /**
+     * the target may have scrolled, poll it again next time
+     */
+    private void invalidateEdgeCache() {
+        if (!mEdgePushed) {
+            mEdgeCached = false;
         }
-        return canLoadMore && mHasFooterView && mLoadMoreTriggerOffset > 0;
     }
 
     @Override
@@ -937,11 +1645,21 @@ public class SwipeToLoadLayout extends ViewGroup {
             case MotionEvent.ACTION_DOWN:
                 // if status is not ing status && not compete status
                 // abort autoScrolling
-                if (!(STATUS.isRefreshComplete(mStatus) || STATUS.isLoadMoreComplete(mStatus))
-                        && !(STATUS.isRefreshing(mStatus) || STATUS.isLoadingMore(mStatus))) {
+                if (!(STATUS.isRefreshComplete(mEngine.getStatus()) || STATUS.isLoadMoreComplete(mEngine.getStatus()))
+                        && !(STATUS.isRefreshing(mEngine.getStatus()) || STATUS.isLoadingMore(mEngine.getStatus()))) {
                     mAutoScroller.abortIfRunning();
                 }
 
+                if (mMetrics != null) {
+                    mMetrics.getFingerFrames().startSegment();
+                }
+                if (mVelocityTracker == null) {
+                    mVelocityTracker = VelocityTracker.obtain();
+                } else {
+                    mVelocityTracker.clear();
+                }
+                mVelocityTracker.addMovement(event);
+                invalidateEdgeCache();
                 mActivePointerId = MotionEventCompat.getPointerId(event, 0);
                 final float initDownY = getMotionEventY(event, mActivePointerId);
                 if (initDownY == INVALID_COORDINATE) {
@@ -962,32 +1680,29 @@ public class SwipeToLoadLayout extends ViewGroup {
 
                 final float yDiff = y - mLastY;
                 mLastY = y;
+                mVelocityTracker.addMovement(event);
                 // if status is refreshing or loading more
                 // or refresh or refresh complete or load more complete
                 // dispatchTouchEvent to child view
-                if (((STATUS.isRefreshing(mStatus) || STATUS.isLoadingMore(mStatus)) && mLoading)
-                        || (STATUS.isRefreshComplete(mStatus) || STATUS.isLoadMoreComplete(mStatus))) {
+                if (isLoadingOrComplete()) {
                     return super.dispatchTouchEvent(event);
                 }
 
-                if (STATUS.isStatusDefault(mStatus)) {
-                    if (yDiff > 0 && onCheckCanRefresh()) {
-                        mRefreshCallback.onPrepare();
-                        setStatus(STATUS.STATUS_SWIPING_TO_REFRESH);
-
-                    } else if (yDiff < 0 && onCheckCanLoadMore()) {
-                        mLoadMoreCallback.onPrepare();
-                        setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE);
-                    }
+                // the nested scrolling child hands over the scrolls it doesn't consume
+                if (mNestedScrollInProgress) {
+                    break;
                 }
 
+                // the target scrolls itself until the swipe starts, and the scroll changed
+                // notifications come a frame late
+                if (STATUS.isStatusDefault(mEngine.getStatus())) {
+                    invalidateEdgeCache();
+                }
+                onSwipeStart(yDiff);
 
-                if (STATUS.isSwipingToRefresh(mStatus)
-                        || STATUS.isSwipingToLoadMore(mStatus)
-                        || STATUS.isReleaseToRefresh(mStatus)
-                        || STATUS.isReleaseToLoadMore(mStatus)) {
+                if (isSwiping()) {
                     //refresh or loadMore
-                    fingerScroll(yDiff);
+                    fingerScroll(yDiff, event.getEventTime() * 1000000L);
                 }
                 break;
             case MotionEvent.ACTION_POINTER_DOWN:
@@ -1004,7 +1719,16 @@ public class SwipeToLoadLayout extends ViewGroup {
                 if (mActivePointerId == INVALID_POINTER) {
                     return false;
                 }
-                onActivePointerUp();
+                // otherwise released in onStopNestedScroll()
+                if (!mNestedScrollInProgress) {
+                    float velocity = 0;
+                    if (action == MotionEvent.ACTION_UP) {
+                        mVelocityTracker.addMovement(event);
+                        mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+                        velocity = VelocityTrackerCompat.getYVelocity(mVelocityTracker, mActivePointerId);
+                    }
+                    onActivePointerUp(velocity);
+                }
                 mActivePointerId = INVALID_POINTER;
                 break;
             default:
@@ -1016,172 +1740,307 @@ public class SwipeToLoadLayout extends ViewGroup {
 
 
     /**
-     * scrolling by physical touch with your fingers
-     *
-     * @param yDiff
+     * apply the pending updates in the order they were committed
      */
-    private void fingerScroll(final float yDiff) {
-        float ratio = DEFAULT_DRAG_RATIO;
-        if (STATUS.isSwipingToRefresh(mStatus) || STATUS.isReleaseToRefresh(mStatus)) {
-            if (yDiff > 0) {
-                // swiping to refresh
-                ratio = DEFAULT_DRAG_RATIO;
-            } else if (yDiff < 0) {
-                // refresh returning
-                ratio = DEFAULT_DRAG_RATIO * 4;
-            }
-        } else if (STATUS.isSwipingToLoadMore(mStatus) || STATUS.isReleaseToLoadMore(mStatus)) {
-            if (yDiff > 0) {
-                // load more returning
-                ratio = DEFAULT_DRAG_RATIO * 4;
-            } else if (yDiff < 0) {
-                // swiping to load more
-                ratio = DEFAULT_DRAG_RATIO;
-            }
-        } else if (STATUS.isRefreshing(mStatus)) {
-            if (yDiff < 0 && mTargetOffset <= mRefreshTriggerOffset) {
-                // Refreshing + swipe up
-                ratio = 0;
-            } else if (yDiff > 0) {
-                // Refreshing + swipe down
-                ratio = DEFAULT_DRAG_RATIO;
-            } else {
-                ratio = DEFAULT_DRAG_RATIO * 4;
-            }
-        } else if (STATUS.isLoadingMore(mStatus)) {
-            if (yDiff > 0 && -mTargetOffset <= mLoadMoreTriggerOffset) {
-                // loading more + swipe down
-                ratio = 0;
-            } else if (yDiff < 0) {
-                // swiping + swipe up
-                ratio = DEFAULT_DRAG_RATIO;
+    private void flushCommits() {
+        if (mPendingCommits.isEmpty()) {
+            return;
+        }
+        final Runnable[] updates = mPendingCommits.toArray(new Runnable[mPendingCommits.size()]);
+        mPendingCommits.clear();
+        for (Runnable update : updates) {
+            update.run();
+        }
+    }
+
+    /**
+     * notify {@link #mSwipeSettleListener} when the header(footer) starts or stops moving
+     */
+    private void updateSwipeMoving() {
+        final boolean moving = isSwiping() || mAutoScroller.isRunning();
+        if (moving == mSwipeMoving) {
+            return;
+        }
+        mSwipeMoving = moving;
+        if (moving) {
+            buildLayers();
+        } else {
+            destroyLayers();
+        }
+        if (mSwipeSettleListener != null) {
+            if (moving) {
+                mSwipeSettleListener.onSwipeStarted();
             } else {
-                ratio = DEFAULT_DRAG_RATIO * 4;
+                mSwipeSettleListener.onSwipeSettled();
             }
         }
+    }
 
-        float yScrolled = yDiff * ratio;
+    /**
+     * Put the children moving with the header(footer) on hardware layers. The target only moves
+     * alone in BLEW and SCALE styles, otherwise its own scrolling would keep redrawing its layer.
+     * Children already on a layer are left alone.
+     */
+    private void buildLayers() {
+        if (!mHardwareLayersEnabled) {
+            return;
+        }
+        buildLayer(0, mHeaderView);
+        buildLayer(1, mFooterView);
+        if (mStyle == STYLE.BLEW || mStyle == STYLE.SCALE) {
+            buildLayer(2, mTargetView);
+        }
+    }
 
-        // make sure (refresh -> default -> load more) or (load more -> default -> refresh)
-        // forbidden fling jump default status (refresh -> load more)
-        // I am so smart :)
+    private void buildLayer(int index, View child) {
+        if (child != null && mLayerViews[index] == null
+                && ViewCompat.getLayerType(child) == ViewCompat.LAYER_TYPE_NONE) {
+            ViewCompat.setLayerType(child, ViewCompat.LAYER_TYPE_HARDWARE, mLayerPaint);
+            mLayerViews[index] = child;
+        }
+    }
 
-        float tmpTargetOffset = yScrolled + mTargetOffset;
-        if ((tmpTargetOffset > 0 && mTargetOffset < 0)
-                || (yScrolled + mTargetOffset < 0 && mTargetOffset > 0)) {
-            yScrolled = -mTargetOffset;
+    /**
+     * once settled, e.g. a refreshing header animates its progress and shouldn't redraw a layer
+     */
+    private void destroyLayers() {
+        for (int i = 0; i < mLayerViews.length; i++) {
+            if (mLayerViews[i] != null) {
+                ViewCompat.setLayerType(mLayerViews[i], ViewCompat.LAYER_TYPE_NONE, mLayerPaint);
+                mLayerViews[i] = null;
+            }
         }
+    }
 
-        if (mRefreshFinalDragOffset >= mRefreshTriggerOffset
-                && tmpTargetOffset > mRefreshFinalDragOffset) {
-            yScrolled = mRefreshFinalDragOffset - mTargetOffset;
-        } else if (mLoadMoreFinalDragOffset >= mLoadMoreTriggerOffset && -tmpTargetOffset > mLoadMoreFinalDragOffset) {
-            yScrolled = -mLoadMoreFinalDragOffset - mTargetOffset;
+    /**
+     * status is refreshing or loading more, or refresh complete or load more complete.
+     * The scrolls belong to the target then.
+     *
+     * @return
+     */
+    private boolean isLoadingOrComplete() {
+        final byte status = mEngine.getStatus();
+        return ((STATUS.isRefreshing(status) || STATUS.isLoadingMore(status)) && mEngine.isLoading())
+                || (STATUS.isRefreshComplete(status) || STATUS.isLoadMoreComplete(status));
+    }
+
+    /**
+     * status is swiping or release to refresh or load more
+     *
+     * @return
+     */
+    private boolean isSwiping() {
+        final byte status = mEngine.getStatus();
+        return STATUS.isSwipingToRefresh(status)
+                || STATUS.isSwipingToLoadMore(status)
+                || STATUS.isReleaseToRefresh(status)
+                || STATUS.isReleaseToLoadMore(status);
+    }
+
+    /**
+     * leave the default status if swiping towards an edge the target has reached
+     *
+     * @param yDiff
+     */
+    private void onSwipeStart(float yDiff) {
+        if (STATUS.isStatusDefault(mEngine.getStatus())) {
+            if (yDiff > 0 && onCheckCanRefresh()) {
+                mRefreshCallback.onPrepare();
+                setStatus(STATUS.STATUS_SWIPING_TO_REFRESH);
+
+            } else if (yDiff < 0 && onCheckCanLoadMore()) {
+                mLoadMoreCallback.onPrepare();
+                setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE);
+            }
         }
-        updateScroll(yScrolled);
     }
 
     /**
-     * Process the scrolling(auto or physical) and append the diff values to mTargetOffset
-     * I think it's the most busy and core method. :) a ha ha ha ha...
+     * scrolling by physical touch with your fingers, directly or through a nested scrolling child
      *
-     * @param yScrolled
+     * @param yDiff
+     * @param timeNanos
      */
-    private void updateScroll(final float yScrolled) {
-        if (yScrolled == 0) {
+    private void fingerScroll(float yDiff, long timeNanos) {
+        if (mMetrics != null) {
+            mMetrics.onFingerFrame(System.nanoTime());
+        }
+        mEngine.fingerScroll(yDiff, timeNanos);
+    }
+
+    // NestedScrollingParent
+
+    @Override
+    public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
+        return isEnabled() && (nestedScrollAxes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0
+                && !isLoadingOrComplete();
+    }
+
+    @Override
+    public void onNestedScrollAccepted(View child, View target, int axes) {
+        mNestedScrollingParentHelper.onNestedScrollAccepted(child, target, axes);
+        mNestedFlingVelocity = 0;
+        startNestedScroll(axes & ViewCompat.SCROLL_AXIS_VERTICAL);
+        mNestedScrollInProgress = true;
+    }
+
+    @Override
+    public void onNestedPreScroll(View target, int dx, int dy, int[] consumed) {
+        // the header or the footer is out, scroll it back before the child scrolls
+        final int targetOffset = mEngine.getTargetOffset();
+        if ((dy > 0 && targetOffset > 0) || (dy < 0 && targetOffset < 0)) {
+            // take no more than brings the header(footer) back, the rest scrolls the child
+            final int dyConsumed = dy > 0 ? Math.min(dy, targetOffset) : Math.max(dy, targetOffset);
+            fingerScroll(-dyConsumed, System.nanoTime());
+            consumed[1] = dyConsumed;
+        }
+
+        final int[] parentConsumed = mParentScrollConsumed;
+        if (dispatchNestedPreScroll(dx - consumed[0], dy - consumed[1], parentConsumed, null)) {
+            consumed[0] += parentConsumed[0];
+            consumed[1] += parentConsumed[1];
+        }
+    }
+
+    @Override
+    public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        // let the parent scroll first, what it leaves reaches the header or the footer
+        mParentOffsetInWindow[1] = 0;
+        dispatchNestedScroll(dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, mParentOffsetInWindow);
+        final int dy = dyUnconsumed + mParentOffsetInWindow[1];
+        if (dy == 0) {
             return;
         }
-        mTargetOffset += yScrolled;
-        if (mTargetOffset > 0) {
-            if (STATUS.isRefreshStatus(mStatus)) {
-                mHeaderOffset = mTargetOffset;
-                mFooterOffset = 0;
-                if (mTargetOffset < mRefreshTriggerOffset) {
-                    if (STATUS.isReleaseToRefresh(mStatus)) {
-                        setStatus(STATUS.STATUS_SWIPING_TO_REFRESH);
-                    }
-                } else if (mTargetOffset >= mRefreshTriggerOffset) {
-                    if (!STATUS.isRefreshing(mStatus)) {
-                        setStatus(STATUS.STATUS_RELEASE_TO_REFRESH);
-                    }
-                }
-            } else if (STATUS.isStatusDefault(mStatus)) {
-                mHeaderOffset = mTargetOffset;
-                mFooterOffset = 0;
-            }
-        } else if (mTargetOffset < 0) {
-            if (STATUS.isLoadMoreStatus(mStatus)) {
-                mFooterOffset = mTargetOffset;
-                mHeaderOffset = 0;
-                if (-mTargetOffset < mLoadMoreTriggerOffset) {
-                    if (STATUS.isReleaseToLoadMore(mStatus)) {
-                        setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE);
-                    }
-                } else if (-mTargetOffset >= mLoadMoreTriggerOffset) {
-                    if (!STATUS.isLoadingMore(mStatus)) {
-                        setStatus(STATUS.STATUS_RELEASE_TO_LOAD_MORE);
-                    }
-                }
-            } else if (STATUS.isStatusDefault(mStatus)) {
-                mFooterOffset = mTargetOffset;
-                mHeaderOffset = 0;
-            }
-        } else if (mTargetOffset == 0) {
-            if (STATUS.isRefreshing(mStatus) && mLoading) {
-                mTargetOffset = 1;
-                mHeaderOffset = mTargetOffset;
-                mFooterOffset = 0;
-            } else if (STATUS.isLoadingMore(mStatus) && mLoading) {
-                mTargetOffset = -1;
-                mFooterOffset = mTargetOffset;
-                mHeaderOffset = 0;
-            } else {
-                mLoading = false;
-                mHeaderOffset = 0;
-                mFooterOffset = 0;
-                if (STATUS.isRefreshComplete(mStatus) || STATUS.isSwipingToRefresh(mStatus)) {
-                    setStatus(STATUS.STATUS_DEFAULT);
-                    mRefreshCallback.onReset();
-                } else if (STATUS.isLoadMoreComplete(mStatus) || STATUS.isSwipingToLoadMore(mStatus)) {
-                    setStatus(STATUS.STATUS_DEFAULT);
-                    mLoadMoreCallback.onReset();
-                }
-            }
+        final float yDiff = -dy;
+        onSwipeStart(yDiff);
+        if (isSwiping()) {
+            fingerScroll(yDiff, System.nanoTime());
         }
+    }
+
+    @Override
+    public void onStopNestedScroll(View target) {
+        mNestedScrollingParentHelper.onStopNestedScroll(target);
+        if (mNestedScrollInProgress) {
+            mNestedScrollInProgress = false;
+            onActivePointerUp(mNestedFlingVelocity);
+            mNestedFlingVelocity = 0;
+        }
+        stopNestedScroll();
+    }
+
+    @Override
+    public boolean onNestedPreFling(View target, float velocityX, float velocityY) {
+        // don't fling the list while the header or the footer is out,
+        // the fling releases them instead. a fling scrolls the content the other way
+        if (isSwiping()) {
+            mNestedFlingVelocity = -velocityY;
+            return true;
+        }
+        return dispatchNestedPreFling(velocityX, velocityY);
+    }
 
-        if ((mHeaderOffset != 0 && !onCheckCanRefresh())
-                || (mFooterOffset != 0 && !onCheckCanLoadMore())) {
-            mHeaderOffset = 0;
-            mTargetOffset = 0;
-            mFooterOffset = 0;
-            setStatus(STATUS.STATUS_DEFAULT);
+    @Override
+    public boolean onNestedFling(View target, float velocityX, float velocityY, boolean consumed) {
+        if (dispatchNestedFling(velocityX, velocityY, consumed)) {
+            return true;
         }
-        Log.i(TAG, "mTargetOffset:" + mTargetOffset + "; Status=" + STATUS.getStatus(mStatus));
-        if (mTargetOffset > 0 && !STATUS.isRefreshComplete(mStatus)) {
-            mRefreshCallback.onSwipe(mTargetOffset);
-        } else if (mTargetOffset < 0 && !STATUS.isLoadMoreComplete(mStatus)) {
-            mLoadMoreCallback.onSwipe(mTargetOffset);
+        // the target is already at the edge the fling goes to, bounce the header(footer) instead.
+        // consumed only tells the target can scroll on that axis, a RecyclerView always consumes
+        final int direction = velocityY > 0 ? 1 : -1;
+        if (!ViewCompat.canScrollVertically(target, direction)) {
+            return absorbFling(-velocityY);
         }
-        layoutChildren();
-        invalidate();
+        return false;
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return mNestedScrollingParentHelper.getNestedScrollAxes();
+    }
+
+    // NestedScrollingChild
+
+    @Override
+    public void setNestedScrollingEnabled(boolean enabled) {
+        mNestedScrollingChildHelper.setNestedScrollingEnabled(enabled);
+    }
+
+    @Override
+    public boolean isNestedScrollingEnabled() {
+        return mNestedScrollingChildHelper.isNestedScrollingEnabled();
+    }
+
+    @Override
+    public boolean startNestedScroll(int axes) {
+        return mNestedScrollingChildHelper.startNestedScroll(axes);
+    }
+
+    @Override
+    public void stopNestedScroll() {
+        mNestedScrollingChildHelper.stopNestedScroll();
+    }
+
+    @Override
+    public boolean hasNestedScrollingParent() {
+        return mNestedScrollingChildHelper.hasNestedScrollingParent();
+    }
+
+    @Override
+    public boolean dispatchNestedScroll(int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed,
+                                        int[] offsetInWindow) {
+        return mNestedScrollingChildHelper.dispatchNestedScroll(dxConsumed, dyConsumed,
+                dxUnconsumed, dyUnconsumed, offsetInWindow);
+    }
+
+    @Override
+    public boolean dispatchNestedPreScroll(int dx, int dy, int[] consumed, int[] offsetInWindow) {
+        return mNestedScrollingChildHelper.dispatchNestedPreScroll(dx, dy, consumed, offsetInWindow);
+    }
+
+    @Override
+    public boolean dispatchNestedFling(float velocityX, float velocityY, boolean consumed) {
+        return mNestedScrollingChildHelper.dispatchNestedFling(velocityX, velocityY, consumed);
+    }
+
+    @Override
+    public boolean dispatchNestedPreFling(float velocityX, float velocityY) {
+        return mNestedScrollingChildHelper.dispatchNestedPreFling(velocityX, velocityY);
     }
 
     /**
-     * on active finger up
+     * on active finger up, a fast release triggers refresh(load more) before the trigger offset
+     * is reached, and all releases scroll at the release velocity
+     *
+     * @param velocity the release velocity, pixels per second, positive when moving down
      */
-    private void onActivePointerUp() {
-        if (STATUS.isSwipingToRefresh(mStatus)) {
+    private void onActivePointerUp(float velocity) {
+        if (Math.abs(velocity) >= mMinimumFlingVelocity) {
+            final float projected = getProjectedTargetOffset(velocity);
+            if (STATUS.isSwipingToRefresh(mEngine.getStatus())
+                    && projected >= mEngine.getRefreshTriggerOffset()) {
+                setStatus(STATUS.STATUS_RELEASE_TO_REFRESH);
+            } else if (STATUS.isSwipingToLoadMore(mEngine.getStatus())
+                    && -projected >= mEngine.getLoadMoreTriggerOffset()) {
+                setStatus(STATUS.STATUS_RELEASE_TO_LOAD_MORE);
+            }
+        }
+        if (mMetrics != null
+                && (STATUS.isReleaseToRefresh(mEngine.getStatus()) || STATUS.isReleaseToLoadMore(mEngine.getStatus()))) {
+            mMetrics.onRelease(System.nanoTime());
+        }
+        if (STATUS.isSwipingToRefresh(mEngine.getStatus())) {
             // simply return
-            setRefreshing(false);
-        } else if (STATUS.isSwipingToLoadMore(mStatus)) {
+            setRefreshing(false, velocity);
+        } else if (STATUS.isSwipingToLoadMore(mEngine.getStatus())) {
             // simply return
-            setLoadingMore(false);
-        } else if (STATUS.isReleaseToRefresh(mStatus)) {
+            setLoadingMore(false, velocity);
+        } else if (STATUS.isReleaseToRefresh(mEngine.getStatus())) {
             // return to header height and perform refresh
-            setRefreshing(true);
-        } else if (STATUS.isReleaseToLoadMore(mStatus)) {
+            setRefreshing(true, velocity);
+        } else if (STATUS.isReleaseToLoadMore(mEngine.getStatus())) {
             // return to footer height and perform loadMore
-            setLoadingMore(true);
+            setLoadingMore(true, velocity);
         }
     }
 
@@ -1211,40 +2070,107 @@ public class SwipeToLoadLayout extends ViewGroup {
 
     private class AutoScroller implements Runnable {
 
-        private Scroller mScroller;
+        /**
+         * only created on api 16+, null means fall back to the message queue
+         */
+        private final FrameCallbackCompat mFrameCallback;
+
+        /**
+         * reset for every auto scroll, an animator set meanwhile waits for the next one
+         */
+        private SwipeAnimator.Move mmMove;
+
+        /**
+         * the animator {@link #mmMove} came from
+         */
+        private SwipeAnimator mmAnimator;
 
         private int mmLastY;
 
+        private int mmDistance;
+
+        private long mmStartTimeNanos;
+
         private boolean mRunning = false;
 
         private boolean mAbort = false;
 
         public AutoScroller() {
-            mScroller = new Scroller(getContext());
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                mFrameCallback = new FrameCallbackCompat(this);
+            } else {
+                mFrameCallback = null;
+            }
         }
 
+        /**
+         * message queue driven frame, used when the frame callback is disabled or unavailable
+         */
         @Override
         public void run() {
-            boolean finish = !mScroller.computeScrollOffset() || mScroller.isFinished();
-            int currY = mScroller.getCurrY();
+            doFrame(AnimationUtils.currentAnimationTimeMillis() * 1000000L);
+        }
+
+        /**
+         * compute the offset of this frame by the frame time, so a late or early
+         * frame never doubles or drops the distance scrolled
+         *
+         * @param frameTimeNanos
+         */
+        private void doFrame(long frameTimeNanos) {
+            if (!mRunning) {
+                return;
+            }
+            if (mMetrics != null) {
+                mMetrics.onAutoScrollFrame(frameTimeNanos);
+            }
+            final long elapsed = Math.max(0, (frameTimeNanos - mmStartTimeNanos) / 1000000L);
+            final boolean finish = mmMove.isFinished(elapsed);
+            final int currY;
+            if (finish) {
+                currY = mmDistance;
+            } else {
+                currY = Math.round(mmMove.getValue(elapsed));
+            }
             int yDiff = currY - mmLastY;
+            mmLastY = currY;
+            mEngine.updateScroll(yDiff, frameTimeNanos);
             if (finish) {
                 finish();
             } else {
-                mmLastY = currY;
-                updateScroll(yDiff);
+                scheduleFrame();
+            }
+        }
+
+        private void scheduleFrame() {
+            if (mFrameCallbackEnabled && mFrameCallback != null) {
+                mFrameCallback.postFrameCallback();
+            } else {
                 post(this);
             }
         }
 
+        private void removeFrames() {
+            removeCallbacks(this);
+            if (mFrameCallback != null) {
+                mFrameCallback.removeFrameCallback();
+            }
+        }
+
         /**
          * remove the post callbacks and reset default values
          */
         private void finish() {
             mmLastY = 0;
             mRunning = false;
-            removeCallbacks(this);
+            removeFrames();
             autoScrollFinished(mAbort);
+            // unless the finish started another auto scroll
+            updateSwipeMoving();
+        }
+
+        private boolean isRunning() {
+            return mRunning;
         }
 
         /**
@@ -1252,9 +2178,8 @@ public class SwipeToLoadLayout extends ViewGroup {
          */
         public void abortIfRunning() {
             if (mRunning) {
-                if (!mScroller.isFinished()) {
+                if (mmLastY != mmDistance) {
                     mAbort = true;
-                    mScroller.forceFinished(true);
                 }
                 finish();
                 mAbort = false;
@@ -1264,162 +2189,289 @@ public class SwipeToLoadLayout extends ViewGroup {
         /**
          * The param yScrolled here isn't final pos of y.
          * It's just like the yScrolled param in the
-         * {@link #updateScroll(float yScrolled)}
+         * {@link SwipeStateEngine#updateScroll(float, long)}
          *
          * @param yScrolled
-         * @param duration
+         * @param velocity  the release velocity of the finger, pixels per second, 0 if not released
+         * @param duration  the duration set for this move
          */
-        private void autoScroll(int yScrolled, int duration) {
-            removeCallbacks(this);
+        private void autoScroll(int yScrolled, float velocity, int duration) {
+            removeFrames();
             mmLastY = 0;
-            if (!mScroller.isFinished()) {
-                mScroller.forceFinished(true);
+            mmDistance = yScrolled;
+            // the header(footer) moves slower than the finger
+            if (mmAnimator != mSwipeAnimator) {
+                mmAnimator = mSwipeAnimator;
+                mmMove = mSwipeAnimator.newMove();
+            }
+            mmMove.reset(yScrolled, velocity * SwipeStateEngine.DEFAULT_DRAG_RATIO, duration);
+            mmStartTimeNanos = AnimationUtils.currentAnimationTimeMillis() * 1000000L;
+            if (mMetrics != null) {
+                mMetrics.getAutoScrollFrames().startSegment();
             }
-            mScroller.startScroll(0, 0, 0, yScrolled, duration);
-            post(this);
             mRunning = true;
+            updateSwipeMoving();
+            scheduleFrame();
         }
     }
 
     /**
-     * RefreshCallback to implements swipe triggers
+     * Keeps the edge state cache of the target: invalidated when any view in the window scrolls,
+     * or updated by an {@link EdgeObservable} target
      */
-    abstract class RefreshCallback implements SwipeTrigger, SwipeRefreshTrigger {
-    }
+    private class EdgeListener implements ViewTreeObserver.OnScrollChangedListener, OnEdgeChangedListener {
 
-    abstract class TargetCallback implements SwipeTrigger, SwipeRefreshTrigger, SwipeLoadMoreTrigger {
-    }
+        @Override
+        public void onScrollChanged() {
+            invalidateEdgeCache();
+            checkPrefetch();
+        }
 
-    abstract class LoadMoreCallback implements SwipeTrigger, SwipeLoadMoreTrigger {
+        @Override
+        public void onEdgeChanged(boolean canRefresh, boolean canLoadMore) {
+            mTargetCanRefresh = canRefresh;
+            mTargetCanLoadMore = canLoadMore;
+            mEdgeCached = true;
+            checkPrefetch();
+        }
     }
 
-
     /**
-     * Set the current status for better control
-     *
-     * @param status
+     * Delivers vsync frames to the {@link AutoScroller}.
+     * Kept out of AutoScroller so {@link Choreographer} is never loaded below api 16.
      */
-    private void setStatus(byte status) {
-        mStatus = status;
-        STATUS.printStatus(status);
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class FrameCallbackCompat implements Choreographer.FrameCallback {
+
+        private final AutoScroller mAutoScroller;
+
+        /**
+         * obtained lazily, the view may be created on a thread without a looper
+         */
+        private Choreographer mChoreographer;
+
+        FrameCallbackCompat(AutoScroller autoScroller) {
+            mAutoScroller = autoScroller;
+        }
+
+        void postFrameCallback() {
+            if (mChoreographer == null) {
+                mChoreographer = Choreographer.getInstance();
+            }
+            mChoreographer.postFrameCallback(this);
+        }
+
+        void removeFrameCallback() {
+            if (mChoreographer != null) {
+                mChoreographer.removeFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mAutoScroller.doFrame(frameTimeNanos);
+        }
     }
 
     /**
-     * an inner util class.
-     * enum of status
+     * The default {@link SwipeAnimator}, following the duration along the viscous fluid curve,
+     * shortened to keep up with a fast release
      */
-    private final static class STATUS {
-        private static final byte STATUS_REFRESH_RETURNING = -5;
-        private static final byte STATS_REFRESH_COMPLETE = -4;
-        private static final byte STATUS_REFRESHING = -3;
-        private static final byte STATUS_RELEASE_TO_REFRESH = -2;
-        private static final byte STATUS_SWIPING_TO_REFRESH = -1;
-        private static final byte STATUS_DEFAULT = 0;
-        private static final byte STATUS_SWIPING_TO_LOAD_MORE = 1;
-        private static final byte STATUS_RELEASE_TO_LOAD_MORE = 2;
-        private static final byte STATUS_LOADING_MORE = 3;
-        private static final byte STATUS_LOAD_MORE_COMPLETE = 4;
-        private static final byte STATUS_LOAD_MORE_RETURNING = 5;
+    private class DurationAnimator implements SwipeAnimator {
+
+        private final Interpolator mInterpolator = new ViscousFluidInterpolator();
 
-        private static boolean isRefreshing(final byte status) {
-            return status == STATUS.STATUS_REFRESHING;
+        @Override
+        public Move newMove() {
+            return new DurationMove();
         }
 
-        private static boolean isLoadingMore(final byte status) {
-            return status == STATUS.STATUS_LOADING_MORE;
+        private class DurationMove implements Move {
+
+            private int mmDistance;
+
+            private int mmScrollingDuration;
+
+            @Override
+            public void reset(int distance, float velocity, int duration) {
+                mmDistance = distance;
+                // the duration is tuned on the velocity of the finger
+                mmScrollingDuration = getVelocityScrollingDuration(distance,
+                        velocity / SwipeStateEngine.DEFAULT_DRAG_RATIO, duration);
+            }
+
+            @Override
+            public float getValue(long elapsedMillis) {
+                return mmDistance * mInterpolator.getInterpolation((float) elapsedMillis / mmScrollingDuration);
+            }
+
+            @Override
+            public boolean isFinished(long elapsedMillis) {
+                return elapsedMillis >= mmScrollingDuration;
+            }
         }
+    }
+
+    /**
+     * The same viscous fluid curve {@link android.widget.Scroller} uses by default
+     */
+    private static class ViscousFluidInterpolator implements Interpolator {
 
-        private static boolean isRefreshComplete(final byte status) {
-            return status == STATS_REFRESH_COMPLETE;
+        private static final float VISCOUS_FLUID_SCALE = 8.0f;
+
+        private static final float VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+
+        private static float viscousFluid(float x) {
+            x *= VISCOUS_FLUID_SCALE;
+            if (x < 1.0f) {
+                x -= (1.0f - (float) Math.exp(-x));
+            } else {
+                float start = 0.36787944117f;   // 1/e == exp(-1)
+                x = 1.0f - (float) Math.exp(1.0f - x);
+                x = start + x * (1.0f - start);
+            }
+            return x;
         }
 
-        private static boolean isLoadMoreComplete(final byte status) {
-            return status == STATUS_LOAD_MORE_COMPLETE;
+        @Override
+        public float getInterpolation(float input) {
+            return viscousFluid(input) * VISCOUS_FLUID_NORMALIZE;
         }
+    }
 
-        @SuppressWarnings({"unused"})
-        private static boolean isRefreshReturning(final byte status) {
-            return status == STATUS.STATUS_REFRESH_RETURNING;
+    /**
+     * the view side of {@link SwipeStateEngine}
+     */
+    private class EngineCallback implements SwipeStateEngine.Callback {
+
+        @Override
+        public boolean canRefresh() {
+            return onCheckCanRefresh();
         }
 
-        @SuppressWarnings({"unused"})
-        private static boolean isLoadMoreReturning(final byte status) {
-            return status == STATUS.STATUS_LOAD_MORE_RETURNING;
+        @Override
+        public boolean canLoadMore() {
+            return onCheckCanLoadMore();
         }
 
-        private static boolean isReleaseToRefresh(final byte status) {
-            return status == STATUS.STATUS_RELEASE_TO_REFRESH;
+        @Override
+        public void onStatusChanged(byte oldStatus, byte newStatus, long timeNanos) {
+            if (mLogger != null) {
+                mLogger.onStatusChanged(oldStatus, newStatus, timeNanos);
+            }
+            if (STATUS.isStatusDefault(newStatus) && !mPendingCommits.isEmpty()) {
+                // outside of the status change, the updates may start another swipe
+                removeCallbacks(mCommitRunnable);
+                post(mCommitRunnable);
+            }
+            if (mMetrics != null) {
+                if (STATUS.isStatusDefault(oldStatus)) {
+                    // a new swipe cycle
+                    mMetrics.reset();
+                    updateFramePeriod();
+                    mMetrics.setLoadMore(STATUS.isLoadMoreStatus(newStatus));
+                } else if (STATUS.isStatusDefault(newStatus)) {
+                    mMetrics.onSettle(timeNanos);
+                    mMetricsListener.onSwipeMetrics(mMetrics);
+                }
+            }
+            updateSwipeMoving();
         }
 
-        private static boolean isReleaseToLoadMore(final byte status) {
-            return status == STATUS.STATUS_RELEASE_TO_LOAD_MORE;
+        @Override
+        public void onRefreshReset() {
+            mRefreshCallback.onReset();
         }
 
-        private static boolean isSwipingToRefresh(final byte status) {
-            return status == STATUS.STATUS_SWIPING_TO_REFRESH;
+        @Override
+        public void onLoadMoreReset() {
+            mLoadMoreCallback.onReset();
         }
 
-        private static boolean isSwipingToLoadMore(final byte status) {
-            return status == STATUS.STATUS_SWIPING_TO_LOAD_MORE;
+        @Override
+        public void onRefreshSwipe(int targetOffset) {
+            mRefreshCallback.onSwipe(targetOffset);
         }
 
-        private static boolean isRefreshStatus(final byte status) {
-            return status < STATUS.STATUS_DEFAULT;
+        @Override
+        public void onLoadMoreSwipe(int targetOffset) {
+            mLoadMoreCallback.onSwipe(targetOffset);
         }
 
-        public static boolean isLoadMoreStatus(final int status) {
-            return status > STATUS.STATUS_DEFAULT;
+        @Override
+        public void onScrolled(int targetOffset, long timeNanos) {
+            if (mLogger != null) {
+                mLogger.onScroll(targetOffset, mEngine.getStatus(), timeNanos);
+            }
+            if (mOffsetChildrenEnabled) {
+                // an offset child invalidates its old and new bounds itself
+                offsetChildren();
+            } else {
+                layoutChildren();
+                invalidate();
+            }
         }
+    }
 
-        private static boolean isStatusDefault(final byte status) {
-            return status == STATUS.STATUS_DEFAULT;
+    /**
+     * Turns the offsets of a header(footer) into the changes of a {@link SwipeProgressTrigger}
+     */
+    private static class ProgressDispatcher {
+
+        private int mStep = -1;
+
+        private boolean mBeyond;
+
+        void reset() {
+            mStep = -1;
+            mBeyond = false;
         }
 
-        private static String getStatus(int status) {
-            final String statusInfo;
-            switch (status) {
-                case STATUS_REFRESH_RETURNING:
-                    statusInfo = "status_refresh_returning";
-                    break;
-                case STATS_REFRESH_COMPLETE:
-                    statusInfo = "stats_refresh_complete";
-                    break;
-                case STATUS_REFRESHING:
-                    statusInfo = "status_refreshing";
-                    break;
-                case STATUS_RELEASE_TO_REFRESH:
-                    statusInfo = "status_release_to_refresh";
-                    break;
-                case STATUS_SWIPING_TO_REFRESH:
-                    statusInfo = "status_swiping_to_refresh";
-                    break;
-                case STATUS_DEFAULT:
-                    statusInfo = "status_default";
-                    break;
-                case STATUS_SWIPING_TO_LOAD_MORE:
-                    statusInfo = "status_swiping_to_load_more";
-                    break;
-                case STATUS_RELEASE_TO_LOAD_MORE:
-                    statusInfo = "status_release_to_load_more";
-                    break;
-                case STATUS_LOADING_MORE:
-                    statusInfo = "status_loading_more";
-                    break;
-                case STATUS_LOAD_MORE_COMPLETE:
-                    statusInfo = "status_load_more_complete";
-                    break;
-                case STATUS_LOAD_MORE_RETURNING:
-                    statusInfo = "status_load_more_returning";
-                    break;
-                default:
-                    statusInfo = "status_illegal!";
-                    break;
+        /**
+         * @param trigger
+         * @param offset        the distance the header(footer) is pulled out
+         * @param triggerOffset
+         * @param swiping       whether the trigger offset decides the release now
+         */
+        void dispatch(SwipeProgressTrigger trigger, int offset, float triggerOffset, boolean swiping) {
+            final float progress = triggerOffset > 0 ? offset / triggerOffset : 0;
+            final int steps = trigger.getProgressSteps();
+            if (steps > 0) {
+                final int step = Math.max(0, Math.min((int) (progress * steps), steps));
+                if (step != mStep) {
+                    mStep = step;
+                    trigger.onProgressStep(step, progress);
+                }
+            }
+            if (swiping) {
+                final boolean beyond = offset >= triggerOffset;
+                if (beyond != mBeyond) {
+                    mBeyond = beyond;
+                    trigger.onTriggerCrossed(beyond);
+                }
             }
-            return statusInfo;
         }
+    }
 
-        private static void printStatus(int status) {
-            Log.d(TAG, "printStatus:" + getStatus(status));
-        }
+    /**
+     * RefreshCallback to implements swipe triggers
+     */
+    abstract class RefreshCallback implements SwipeTrigger, SwipeRefreshTrigger {
+    }
+
+    abstract class TargetCallback implements SwipeTrigger, SwipeRefreshTrigger, SwipeLoadMoreTrigger {
+    }
+
+    abstract class LoadMoreCallback implements SwipeTrigger, SwipeLoadMoreTrigger {
+    }
+
+
+    /**
+     * Set the current status for better control
+     *
+     * @param status
+     */
+    private void setStatus(byte status) {
+        mEngine.setStatus(status, System.nanoTime());
     }
 }
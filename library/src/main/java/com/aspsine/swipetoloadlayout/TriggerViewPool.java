@@ -0,0 +1,83 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link TriggerViewProvider} keeping a few recycled headers(footers), so the layouts of one window,
+ * e.g. the pages of a ViewPager, share them. Only one layout is usually pulled at a time, so a small
+ * pool is enough. The views belong to the context they were created with, don't share a pool across windows.
+ */
+public abstract class TriggerViewPool implements TriggerViewProvider {
+
+    private static final int DEFAULT_MAX_SIZE = 2;
+
+    private final int mMaxSize;
+
+    private final ArrayList<View> mHeaderViews = new ArrayList<View>();
+
+    private final ArrayList<View> mFooterViews = new ArrayList<View>();
+
+    public TriggerViewPool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the pool keeps at most this many headers and as many footers
+     */
+    public TriggerViewPool(int maxSize) {
+        this.mMaxSize = maxSize;
+    }
+
+    /**
+     * create a header, usually by inflating it into the parent without attaching it
+     *
+     * @param parent
+     * @return
+     */
+    protected abstract View createRefreshHeaderView(ViewGroup parent);
+
+    /**
+     * create a footer, usually by inflating it into the parent without attaching it
+     *
+     * @param parent
+     * @return
+     */
+    protected abstract View createLoadMoreFooterView(ViewGroup parent);
+
+    @Override
+    public View obtainRefreshHeaderView(ViewGroup parent) {
+        final int size = mHeaderViews.size();
+        return size > 0 ? mHeaderViews.remove(size - 1) : createRefreshHeaderView(parent);
+    }
+
+    @Override
+    public void recycleRefreshHeaderView(View view) {
+        if (mHeaderViews.size() < mMaxSize) {
+            mHeaderViews.add(view);
+        }
+    }
+
+    @Override
+    public View obtainLoadMoreFooterView(ViewGroup parent) {
+        final int size = mFooterViews.size();
+        return size > 0 ? mFooterViews.remove(size - 1) : createLoadMoreFooterView(parent);
+    }
+
+    @Override
+    public void recycleLoadMoreFooterView(View view) {
+        if (mFooterViews.size() < mMaxSize) {
+            mFooterViews.add(view);
+        }
+    }
+
+    /**
+     * drop the recycled views, e.g. when the window is destroyed
+     */
+    public void clear() {
+        mHeaderViews.clear();
+        mFooterViews.clear();
+    }
+}
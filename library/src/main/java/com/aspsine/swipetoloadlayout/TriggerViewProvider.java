@@ -0,0 +1,41 @@
+package com.aspsine.swipetoloadlayout;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Gives {@link SwipeToLoadLayout} its header(footer) on the first pull instead of at inflation,
+ * and takes it back once the layout is reset. The header must implement {@link SwipeRefreshTrigger},
+ * the footer {@link SwipeLoadMoreTrigger}. On the main thread.
+ *
+ * @see TriggerViewPool
+ */
+public interface TriggerViewProvider {
+
+    /**
+     * @param parent the layout the header is going to be added to
+     * @return the header, not attached to any parent
+     */
+    public View obtainRefreshHeaderView(ViewGroup parent);
+
+    /**
+     * the header is removed from the layout and reset
+     *
+     * @param view
+     */
+    public void recycleRefreshHeaderView(View view);
+
+    /**
+     * @param parent the layout the footer is going to be added to
+     * @return the footer, not attached to any parent
+     */
+    public View obtainLoadMoreFooterView(ViewGroup parent);
+
+    /**
+     * the footer is removed from the layout and reset
+     *
+     * @param view
+     */
+    public void recycleLoadMoreFooterView(View view);
+
+}
@@ -0,0 +1,84 @@
+package com.aspsine.swipetoloadlayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs on the JVM, {@link SpringSwipeAnimator} doesn't depend on Android.
+ */
+public class SpringSwipeAnimatorTest {
+
+    private static final int FRAME = 16;
+
+    private static SwipeAnimator.Move start(SwipeAnimator animator, int distance, float velocity) {
+        final SwipeAnimator.Move move = animator.newMove();
+        move.reset(distance, velocity, 500);
+        return move;
+    }
+
+    /**
+     * @return the elapsed time of the first finished frame
+     */
+    private static long runFrames(SwipeAnimator.Move move, int distance) {
+        float last = 0;
+        for (long t = 0; t < 5000; t += FRAME) {
+            final float value = move.getValue(t);
+            // monotonic towards the distance and never past it
+            assertTrue(Math.abs(value) >= Math.abs(last));
+            assertTrue(Math.abs(value) <= Math.abs(distance));
+            last = value;
+            if (move.isFinished(t)) {
+                assertEquals(distance, value, 0f);
+                return t;
+            }
+        }
+        throw new AssertionError("never finished");
+    }
+
+    @Test
+    public void retract_settlesBeforeDefaultDuration() {
+        final SwipeAnimator.Move move = start(new SpringSwipeAnimator(), -300, 0);
+        assertFalse(move.isFinished(0));
+        assertTrue(runFrames(move, -300) < 500);
+    }
+
+    @Test
+    public void releaseVelocity_settlesFaster() {
+        final SpringSwipeAnimator animator = new SpringSwipeAnimator();
+        final SwipeAnimator.Move still = start(animator, 200, 0);
+        final SwipeAnimator.Move released = start(animator, 200, 3000);
+        assertTrue(runFrames(released, 200) < runFrames(still, 200));
+    }
+
+    @Test
+    public void underDamped_stopsOnArrival() {
+        final SpringSwipeAnimator animator = new SpringSwipeAnimator(SpringSwipeAnimator.DEFAULT_STIFFNESS, 0.3f);
+        runFrames(start(animator, -150, -2000), -150);
+    }
+
+    @Test
+    public void overDamped_reachesDistance() {
+        final SpringSwipeAnimator animator = new SpringSwipeAnimator(SpringSwipeAnimator.DEFAULT_STIFFNESS, 2f);
+        runFrames(start(animator, 120, 0), 120);
+    }
+
+    @Test
+    public void zeroDistance_finishesAtOnce() {
+        final SwipeAnimator.Move move = start(new SpringSwipeAnimator(), 0, 1000);
+        assertTrue(move.isFinished(0));
+        assertEquals(0, move.getValue(0), 0f);
+    }
+
+    @Test
+    public void reset_startsTheMoveOver() {
+        final SwipeAnimator.Move move = start(new SpringSwipeAnimator(), 200, 3000);
+        runFrames(move, 200);
+        move.reset(-100, 0, 500);
+        assertFalse(move.isFinished(0));
+        assertEquals(0, move.getValue(0), 0.5f);
+        runFrames(move, -100);
+    }
+}
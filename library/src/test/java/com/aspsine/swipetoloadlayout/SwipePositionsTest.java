@@ -0,0 +1,45 @@
+package com.aspsine.swipetoloadlayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs on the JVM, {@link SwipePositions} doesn't depend on Android.
+ */
+public class SwipePositionsTest {
+
+    private static final int TOP = 10;
+
+    private static final int BOTTOM = 800;
+
+    private static final int HEIGHT = 100;
+
+    @Test
+    public void classic_movesAllChildren() {
+        assertEquals(TOP - HEIGHT + 40, SwipePositions.getHeaderTop(SwipePositions.STYLE_CLASSIC, TOP, HEIGHT, 40));
+        assertEquals(TOP + 40, SwipePositions.getTargetTop(SwipePositions.STYLE_CLASSIC, TOP, 40));
+        assertEquals(BOTTOM + HEIGHT - 40, SwipePositions.getFooterBottom(SwipePositions.STYLE_CLASSIC, BOTTOM, HEIGHT, -40));
+    }
+
+    @Test
+    public void above_keepsTheTarget() {
+        assertEquals(TOP - HEIGHT + 40, SwipePositions.getHeaderTop(SwipePositions.STYLE_ABOVE, TOP, HEIGHT, 40));
+        assertEquals(TOP, SwipePositions.getTargetTop(SwipePositions.STYLE_ABOVE, TOP, 40));
+        assertEquals(BOTTOM + HEIGHT - 40, SwipePositions.getFooterBottom(SwipePositions.STYLE_ABOVE, BOTTOM, HEIGHT, -40));
+    }
+
+    @Test
+    public void blew_keepsTheHeaderAndTheFooter() {
+        assertEquals(TOP, SwipePositions.getHeaderTop(SwipePositions.STYLE_BLEW, TOP, HEIGHT, 40));
+        assertEquals(TOP + 40, SwipePositions.getTargetTop(SwipePositions.STYLE_BLEW, TOP, 40));
+        assertEquals(BOTTOM, SwipePositions.getFooterBottom(SwipePositions.STYLE_BLEW, BOTTOM, HEIGHT, -40));
+    }
+
+    @Test
+    public void scale_movesTheHeaderAndTheFooterHalfway() {
+        assertEquals(TOP - HEIGHT / 2 + 20, SwipePositions.getHeaderTop(SwipePositions.STYLE_SCALE, TOP, HEIGHT, 40));
+        assertEquals(TOP + 40, SwipePositions.getTargetTop(SwipePositions.STYLE_SCALE, TOP, 40));
+        assertEquals(BOTTOM + HEIGHT / 2 - 20, SwipePositions.getFooterBottom(SwipePositions.STYLE_SCALE, BOTTOM, HEIGHT, -40));
+    }
+}
@@ -0,0 +1,247 @@
+package com.aspsine.swipetoloadlayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.aspsine.swipetoloadlayout.SwipeStateEngine.STATUS;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs on the JVM, {@link SwipeStateEngine} doesn't depend on Android.
+ */
+public class SwipeStateEngineTest {
+
+    private static final int TRIGGER_OFFSET = 100;
+
+    private static final int FINAL_DRAG_OFFSET = 200;
+
+    private SwipeStateEngine mEngine;
+
+    private RecordingCallback mCallback;
+
+    private long mTime;
+
+    @Before
+    public void setUp() {
+        mCallback = new RecordingCallback();
+        mEngine = new SwipeStateEngine(mCallback);
+        mEngine.setRefreshTriggerOffset(TRIGGER_OFFSET);
+        mEngine.setLoadMoreTriggerOffset(TRIGGER_OFFSET);
+    }
+
+    private void fingerScroll(float yDiff) {
+        mEngine.fingerScroll(yDiff, mTime++);
+    }
+
+    @Test
+    public void swipeDownPastTrigger_releaseToRefresh() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+
+        fingerScroll(100);
+        assertEquals(50, mEngine.getTargetOffset());
+        assertEquals(50, mEngine.getHeaderOffset());
+        assertEquals(STATUS.STATUS_SWIPING_TO_REFRESH, mEngine.getStatus());
+
+        fingerScroll(100);
+        assertEquals(100, mEngine.getTargetOffset());
+        assertEquals(STATUS.STATUS_RELEASE_TO_REFRESH, mEngine.getStatus());
+        assertEquals(100, mCallback.lastRefreshSwipe);
+    }
+
+    @Test
+    public void swipeBackUnderTrigger_swipingToRefresh() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        fingerScroll(300);
+        assertEquals(STATUS.STATUS_RELEASE_TO_REFRESH, mEngine.getStatus());
+
+        // returning is 4 times harder than the default ratio
+        fingerScroll(-50);
+        assertEquals(50, mEngine.getTargetOffset());
+        assertEquals(STATUS.STATUS_SWIPING_TO_REFRESH, mEngine.getStatus());
+    }
+
+    @Test
+    public void swipeBackToZero_resetsToDefault() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        fingerScroll(100);
+        fingerScroll(-100);
+
+        assertEquals(0, mEngine.getTargetOffset());
+        assertEquals(STATUS.STATUS_DEFAULT, mEngine.getStatus());
+        assertEquals(1, mCallback.refreshResetCount);
+    }
+
+    @Test
+    public void swipeUp_loadMore() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE, mTime++);
+        fingerScroll(-200);
+
+        assertEquals(-100, mEngine.getTargetOffset());
+        assertEquals(-100, mEngine.getFooterOffset());
+        assertEquals(0, mEngine.getHeaderOffset());
+        assertEquals(STATUS.STATUS_RELEASE_TO_LOAD_MORE, mEngine.getStatus());
+        assertEquals(-100, mCallback.lastLoadMoreSwipe);
+    }
+
+    @Test
+    public void fling_cannotJumpFromRefreshToLoadMore() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        fingerScroll(20);
+        fingerScroll(-1000);
+
+        assertEquals(0, mEngine.getTargetOffset());
+        assertFalse(STATUS.isLoadMoreStatus(mEngine.getStatus()));
+    }
+
+    @Test
+    public void finalDragOffset_limitsTheOffset() {
+        mEngine.setRefreshFinalDragOffset(FINAL_DRAG_OFFSET);
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        fingerScroll(1000);
+
+        assertEquals(FINAL_DRAG_OFFSET, mEngine.getTargetOffset());
+    }
+
+    @Test
+    public void refreshing_keepsTheHeaderOut() {
+        mEngine.setLoading(true);
+        mEngine.setStatus(STATUS.STATUS_REFRESHING, mTime++);
+        mEngine.updateScroll(TRIGGER_OFFSET, mTime++);
+        mEngine.updateScroll(-TRIGGER_OFFSET, mTime++);
+
+        assertEquals(1, mEngine.getTargetOffset());
+        assertEquals(STATUS.STATUS_REFRESHING, mEngine.getStatus());
+    }
+
+    @Test
+    public void staleRefreshCancel_keepsTheLoadMoreLoading() {
+        mEngine.setStatus(STATUS.STATUS_LOADING_MORE, mTime++);
+        mEngine.setLoadMoreLoading(true);
+        mEngine.setRefreshLoading(false);
+
+        assertTrue(mEngine.isLoading());
+    }
+
+    @Test
+    public void refreshDuringLoadMoreComplete_setsLoading() {
+        mEngine.setStatus(STATUS.STATUS_LOAD_MORE_COMPLETE, mTime++);
+        mEngine.setRefreshLoading(true);
+
+        assertTrue(mEngine.isLoading());
+    }
+
+    @Test
+    public void refreshWhileSwipingToLoadMore_keepsTheHeaderOut() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_LOAD_MORE, mTime++);
+        fingerScroll(-100);
+        mEngine.setRefreshLoading(true);
+        mEngine.setStatus(STATUS.STATUS_REFRESHING, mTime++);
+        mEngine.updateScroll(50, mTime++);
+
+        assertEquals(1, mEngine.getTargetOffset());
+        assertEquals(STATUS.STATUS_REFRESHING, mEngine.getStatus());
+    }
+
+    @Test
+    public void loadMoreDuringRefreshComplete_setsLoading() {
+        mEngine.setStatus(STATUS.STATS_REFRESH_COMPLETE, mTime++);
+        mEngine.setLoadMoreLoading(true);
+
+        assertTrue(mEngine.isLoading());
+    }
+
+    @Test
+    public void staleLoadMoreCancel_keepsTheRefreshLoading() {
+        mEngine.setStatus(STATUS.STATUS_REFRESHING, mTime++);
+        mEngine.setRefreshLoading(true);
+        mEngine.setLoadMoreLoading(false);
+
+        assertTrue(mEngine.isLoading());
+    }
+
+    @Test
+    public void targetLeftTheTop_resetsToDefault() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        fingerScroll(100);
+        mCallback.canRefresh = false;
+        fingerScroll(10);
+
+        assertEquals(0, mEngine.getTargetOffset());
+        assertEquals(STATUS.STATUS_DEFAULT, mEngine.getStatus());
+    }
+
+    @Test
+    public void statusChanges_areReportedOnce() {
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+        mEngine.setStatus(STATUS.STATUS_SWIPING_TO_REFRESH, mTime++);
+
+        assertEquals(1, mCallback.statusChangeCount);
+        assertEquals(STATUS.STATUS_DEFAULT, mCallback.lastOldStatus);
+        assertEquals(STATUS.STATUS_SWIPING_TO_REFRESH, mCallback.lastNewStatus);
+    }
+
+    private static class RecordingCallback implements SwipeStateEngine.Callback {
+
+        boolean canRefresh = true;
+
+        boolean canLoadMore = true;
+
+        int statusChangeCount;
+
+        byte lastOldStatus;
+
+        byte lastNewStatus;
+
+        int refreshResetCount;
+
+        int loadMoreResetCount;
+
+        int lastRefreshSwipe;
+
+        int lastLoadMoreSwipe;
+
+        @Override
+        public boolean canRefresh() {
+            return canRefresh;
+        }
+
+        @Override
+        public boolean canLoadMore() {
+            return canLoadMore;
+        }
+
+        @Override
+        public void onStatusChanged(byte oldStatus, byte newStatus, long timeNanos) {
+            statusChangeCount++;
+            lastOldStatus = oldStatus;
+            lastNewStatus = newStatus;
+        }
+
+        @Override
+        public void onRefreshReset() {
+            refreshResetCount++;
+        }
+
+        @Override
+        public void onLoadMoreReset() {
+            loadMoreResetCount++;
+        }
+
+        @Override
+        public void onRefreshSwipe(int targetOffset) {
+            lastRefreshSwipe = targetOffset;
+        }
+
+        @Override
+        public void onLoadMoreSwipe(int targetOffset) {
+            lastLoadMoreSwipe = targetOffset;
+        }
+
+        @Override
+        public void onScrolled(int targetOffset, long timeNanos) {
+        }
+    }
+}